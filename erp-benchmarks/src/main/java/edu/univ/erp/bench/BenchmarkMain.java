@@ -0,0 +1,37 @@
+package edu.univ.erp.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkMain - Entry point of benchmarks.jar
+ *
+ * Accepts the standard JMH command line. Unless -rf / -rff are given, results
+ * are also written as JSON to jmh-result.json so runs can be compared by tools.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+        // Entry point only
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams()
+                || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(cmd);
+        if (!cmd.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            options.result("jmh-result.json");
+        }
+        new Runner(options.build()).run();
+    }
+}
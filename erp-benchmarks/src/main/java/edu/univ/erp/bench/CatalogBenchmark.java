@@ -0,0 +1,39 @@
+package edu.univ.erp.bench;
+
+import edu.univ.erp.service.CatalogCache;
+import edu.univ.erp.service.CatalogPage;
+import edu.univ.erp.service.CatalogQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CatalogBenchmark - StudentService.getCatalogPage
+ *
+ * firstPage is the steady state (static rows cached, seat counts re-read);
+ * coldFirstPage drops the cache first, as after an admin creates a section.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogBenchmark {
+
+    @Benchmark
+    public CatalogPage firstPage(ErpState state) throws Exception {
+        return state.studentService.getCatalogPage(CatalogQuery.firstPage("B1", null, null, true));
+    }
+
+    @Benchmark
+    public CatalogPage coldFirstPage(ErpState state) throws Exception {
+        CatalogCache.of(state.db).invalidate();
+        return state.studentService.getCatalogPage(CatalogQuery.firstPage("B1", null, null, true));
+    }
+}
@@ -0,0 +1,166 @@
+package edu.univ.erp.bench;
+
+import edu.univ.erp.auth.AuthService;
+import edu.univ.erp.data.DatabaseFactory;
+import edu.univ.erp.data.EmbeddedDatabase;
+import edu.univ.erp.domain.User;
+import edu.univ.erp.domain.UserRole;
+import edu.univ.erp.service.InstructorService;
+import edu.univ.erp.service.StudentService;
+import edu.univ.erp.tools.DataGenerator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+
+/**
+ * ErpState - Embedded ERP database shared by all benchmarks of one trial
+ *
+ * Starts from setup.sql and loads a DataGenerator dataset at the scale given by
+ * the JMH parameters (override with -p students=100000 -p sections=10000).
+ * The database is installed into DatabaseFactory so the process-wide caches
+ * read from it as well.
+ *
+ * Fixed fixtures used by the benchmarks:
+ * - rosterSection: taught by rosterInstructor, with the first rosterSize students
+ *   and all their grades
+ * - openSection: no enrollments, unlimited seats, drop deadline far ahead
+ *
+ * Seeding is deterministic (fixed seeds), so runs are comparable.
+ */
+@State(Scope.Benchmark)
+public class ErpState {
+
+    static final String PASSWORD = "password";
+
+    @Param({"5000"})
+    public int students;
+
+    @Param({"500"})
+    public int sections;
+
+    @Param({"300"})
+    public int rosterSize;
+
+    public EmbeddedDatabase db;
+    public StudentService studentService;
+    public InstructorService instructorService;
+    public AuthService authService;
+
+    public int firstStudentId;
+    public User rosterInstructor;
+    public int rosterSection;
+    public int openSection;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        String schema = System.getProperty("erp.setupSql", "../erp-system/setup.sql");
+        db = EmbeddedDatabase.start(Path.of(schema), 10);
+        DatabaseFactory.install(db);
+        seed();
+
+        studentService = new StudentService(db);
+        instructorService = new InstructorService(db);
+        authService = new AuthService(db);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        DatabaseFactory.install(null);
+        db.close();
+    }
+
+    /** Student user for the given index in [0, students) */
+    public User student(int index) {
+        int id = firstStudentId + Math.floorMod(index, students);
+        return new User(id, studentUsername(index), UserRole.STUDENT);
+    }
+
+    public String studentUsername(int index) {
+        return "gen_stu" + Math.floorMod(index, students);
+    }
+
+    private void seed() throws Exception {
+        DataGenerator generator = new DataGenerator(db, DataGenerator.Scale.of(students, sections));
+        generator.generate();
+        firstStudentId = generator.firstStudentId();
+        rosterInstructor = new User(generator.firstInstructorId(), "gen_inst0", UserRole.INSTRUCTOR);
+
+        try (Connection erp = db.getErpConnection()) {
+            erp.setAutoCommit(false);
+            try (PreparedStatement stmt = erp.prepareStatement(
+                    "INSERT INTO sections (course_code, instructor_id, days_times, room, capacity, drop_deadline) " +
+                    "VALUES ('GEN0', ?, 'Sat 09:00', 'BENCH', ?, DATE '2099-12-31')")) {
+                stmt.setInt(1, rosterInstructor.getUserId());
+                stmt.setInt(2, rosterSize);
+                stmt.addBatch();
+                stmt.setInt(1, rosterInstructor.getUserId());
+                stmt.setInt(2, Integer.MAX_VALUE - 1);
+                stmt.addBatch();
+                stmt.executeBatch();
+            }
+            openSection = maxId(erp, "SELECT MAX(section_id) FROM sections");
+            rosterSection = openSection - 1;
+
+            int firstEnrollmentId = maxId(erp, "SELECT MAX(enrollment_id) FROM enrollments") + 1;
+            int roster = Math.min(rosterSize, students);
+            try (PreparedStatement stmt = erp.prepareStatement(
+                    "INSERT INTO enrollments (student_id, section_id) VALUES (?, ?)")) {
+                for (int i = 0; i < roster; i++) {
+                    stmt.setInt(1, firstStudentId + i);
+                    stmt.setInt(2, rosterSection);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            Random random = new Random(42);
+            try (PreparedStatement stmt = erp.prepareStatement(
+                    "INSERT INTO grades (enrollment_id, component_name, score) VALUES (?, ?, ?)")) {
+                for (int e = firstEnrollmentId; e < firstEnrollmentId + roster; e++) {
+                    addGrade(stmt, e, "Quiz", random.nextInt(21));
+                    addGrade(stmt, e, "Midterm", random.nextInt(31));
+                    addGrade(stmt, e, "EndSem", random.nextInt(51));
+                }
+                stmt.executeBatch();
+            }
+            try (PreparedStatement stmt = erp.prepareStatement(
+                    "UPDATE sections SET enrolled_count = ? WHERE section_id = ?")) {
+                stmt.setInt(1, roster);
+                stmt.setInt(2, rosterSection);
+                stmt.executeUpdate();
+            }
+            erp.commit();
+        }
+    }
+
+    private static void addGrade(PreparedStatement stmt, int enrollmentId, String component, double score) throws SQLException {
+        stmt.setInt(1, enrollmentId);
+        stmt.setString(2, component);
+        stmt.setDouble(3, score);
+        stmt.addBatch();
+    }
+
+    private static int maxId(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /** Temporary file that is deleted when the JVM exits */
+    static Path tempFile(String prefix, String suffix) throws java.io.IOException {
+        Path file = Files.createTempFile(prefix, suffix);
+        file.toFile().deleteOnExit();
+        return file;
+    }
+}
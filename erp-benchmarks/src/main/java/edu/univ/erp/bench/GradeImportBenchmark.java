@@ -0,0 +1,55 @@
+package edu.univ.erp.bench;
+
+import edu.univ.erp.domain.GradebookRow;
+import edu.univ.erp.service.GradeImporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GradeImportBenchmark - InstructorService.importGradesFromCSV for the whole roster section
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GradeImportBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class CsvFile {
+        File file;
+
+        @Setup(Level.Trial)
+        public void write(ErpState state) throws Exception {
+            Path path = ErpState.tempFile("grades", ".csv");
+            try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                out.write("EnrollmentID,Quiz,Midterm,EndSem\n");
+                for (GradebookRow row : state.instructorService.getClassList(state.rosterSection, state.rosterInstructor)) {
+                    out.write(row.enrollmentId() + "," + row.quiz() + "," + row.midterm() + "," + row.endsem() + "\n");
+                }
+            }
+            file = path.toFile();
+        }
+    }
+
+    @Benchmark
+    public GradeImporter.Report importRoster(ErpState state, CsvFile csv) throws Exception {
+        return state.instructorService.importGradesFromCSV(csv.file, state.rosterInstructor);
+    }
+}
@@ -0,0 +1,96 @@
+package edu.univ.erp.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GradeWriteBenchmark - Write latency of one grade component
+ *
+ * deleteThenInsert is how grades were replaced before the unique
+ * (enrollment_id, component_name) key, in one transaction; upsert is the
+ * single INSERT ... ON DUPLICATE KEY UPDATE used now.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GradeWriteBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Enrollments {
+        final List<Integer> ids = new ArrayList<>();
+
+        @Setup(Level.Trial)
+        public void load(ErpState state) throws Exception {
+            try (Connection conn = state.db.getErpConnection();
+                 PreparedStatement stmt = conn.prepareStatement(
+                         "SELECT enrollment_id FROM enrollments WHERE section_id = ?")) {
+                stmt.setInt(1, state.rosterSection);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public void deleteThenInsert(ErpState state, Enrollments enrollments, Cursor cursor) throws Exception {
+        int enrollmentId = enrollments.ids.get(cursor.next++ % enrollments.ids.size());
+        try (Connection conn = state.db.getErpConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement delete = conn.prepareStatement(
+                         "DELETE FROM grades WHERE enrollment_id = ? AND component_name = ?");
+                 PreparedStatement insert = conn.prepareStatement(
+                         "INSERT INTO grades (enrollment_id, component_name, score) VALUES (?, ?, ?)")) {
+                delete.setInt(1, enrollmentId);
+                delete.setString(2, "Quiz");
+                delete.executeUpdate();
+                insert.setInt(1, enrollmentId);
+                insert.setString(2, "Quiz");
+                insert.setDouble(3, cursor.next % 20);
+                insert.executeUpdate();
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    @Benchmark
+    public void upsert(ErpState state, Enrollments enrollments, Cursor cursor) throws Exception {
+        int enrollmentId = enrollments.ids.get(cursor.next++ % enrollments.ids.size());
+        try (Connection conn = state.db.getErpConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO grades (enrollment_id, component_name, score) VALUES (?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE score = VALUES(score)")) {
+            stmt.setInt(1, enrollmentId);
+            stmt.setString(2, "Quiz");
+            stmt.setDouble(3, cursor.next % 20);
+            stmt.executeUpdate();
+        }
+    }
+}
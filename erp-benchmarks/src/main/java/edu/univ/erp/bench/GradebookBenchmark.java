@@ -0,0 +1,205 @@
+package edu.univ.erp.bench;
+
+import edu.univ.erp.domain.GradeSaveResult;
+import edu.univ.erp.domain.GradebookRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GradebookBenchmark - InstructorService class list and grade saving on the roster section
+ *
+ * saveRosterPerGrade is the old gradebook save, reproduced here because the
+ * service no longer has it: per component per student, a maintenance-mode
+ * settings query on one connection, then DELETE + INSERT in autocommit on
+ * another. saveRosterBatched is saveGradebook, one batched transaction for the
+ * whole section.
+ *
+ * The two differ in more than batching (settings query, statement shape,
+ * connections, validation), so the write* benchmarks isolate it: the same
+ * statements for the whole section on one connection, once executed per grade
+ * in autocommit and once as a single batch in one transaction, for both
+ * DELETE + INSERT and the upsert.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GradebookBenchmark {
+
+    private static final String[] COMPONENTS = {"Quiz", "Midterm", "EndSem"};
+
+    @State(Scope.Benchmark)
+    public static class Roster {
+        List<GradebookRow> rows;
+
+        @Setup(Level.Trial)
+        public void load(ErpState state) throws Exception {
+            rows = state.instructorService.getClassList(state.rosterSection, state.rosterInstructor);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public List<GradebookRow> classList(ErpState state) throws Exception {
+        return state.instructorService.getClassList(state.rosterSection, state.rosterInstructor);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void saveGrade(ErpState state, Roster roster, Cursor cursor) throws Exception {
+        GradebookRow row = roster.rows.get(cursor.next++ % roster.rows.size());
+        state.instructorService.saveGrade(row.enrollmentId(), "Quiz", (row.quiz() + cursor.next) % 20);
+    }
+
+    @Benchmark
+    public void saveRosterPerGrade(ErpState state, Roster roster) throws Exception {
+        for (GradebookRow row : roster.rows) {
+            saveGradeBaseline(state, row.enrollmentId(), "Quiz", row.quiz());
+            saveGradeBaseline(state, row.enrollmentId(), "Midterm", row.midterm());
+            saveGradeBaseline(state, row.enrollmentId(), "EndSem", row.endsem());
+        }
+    }
+
+    @Benchmark
+    public List<GradeSaveResult> saveRosterBatched(ErpState state, Roster roster) throws Exception {
+        return state.instructorService.saveGradebook(state.rosterSection, state.rosterInstructor, roster.rows);
+    }
+
+    @Benchmark
+    public void writeDeleteInsertPerGrade(ErpState state, Roster roster) throws Exception {
+        writeDeleteInsert(state, roster, false);
+    }
+
+    @Benchmark
+    public void writeDeleteInsertBatched(ErpState state, Roster roster) throws Exception {
+        writeDeleteInsert(state, roster, true);
+    }
+
+    @Benchmark
+    public void writeUpsertPerGrade(ErpState state, Roster roster) throws Exception {
+        writeUpsert(state, roster, false);
+    }
+
+    @Benchmark
+    public void writeUpsertBatched(ErpState state, Roster roster) throws Exception {
+        writeUpsert(state, roster, true);
+    }
+
+    private static void writeDeleteInsert(ErpState state, Roster roster, boolean batched) throws Exception {
+        try (Connection conn = state.db.getErpConnection();
+             PreparedStatement delete = conn.prepareStatement(
+                     "DELETE FROM grades WHERE enrollment_id = ? AND component_name = ?");
+             PreparedStatement insert = conn.prepareStatement(
+                     "INSERT INTO grades (enrollment_id, component_name, score) VALUES (?, ?, ?)")) {
+            conn.setAutoCommit(!batched);
+            try {
+                for (GradebookRow row : roster.rows) {
+                    for (int c = 0; c < COMPONENTS.length; c++) {
+                        delete.setInt(1, row.enrollmentId());
+                        delete.setString(2, COMPONENTS[c]);
+                        insert.setInt(1, row.enrollmentId());
+                        insert.setString(2, COMPONENTS[c]);
+                        insert.setDouble(3, score(row, c));
+                        if (batched) {
+                            delete.addBatch();
+                            insert.addBatch();
+                        } else {
+                            delete.executeUpdate();
+                            insert.executeUpdate();
+                        }
+                    }
+                }
+                if (batched) {
+                    // All deletes before all inserts, as each (enrollment, component) appears once
+                    delete.executeBatch();
+                    insert.executeBatch();
+                    conn.commit();
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static void writeUpsert(ErpState state, Roster roster, boolean batched) throws Exception {
+        try (Connection conn = state.db.getErpConnection();
+             PreparedStatement upsert = conn.prepareStatement(
+                     "INSERT INTO grades (enrollment_id, component_name, score) VALUES (?, ?, ?) "
+                             + "ON DUPLICATE KEY UPDATE score = VALUES(score)")) {
+            conn.setAutoCommit(!batched);
+            try {
+                for (GradebookRow row : roster.rows) {
+                    for (int c = 0; c < COMPONENTS.length; c++) {
+                        upsert.setInt(1, row.enrollmentId());
+                        upsert.setString(2, COMPONENTS[c]);
+                        upsert.setDouble(3, score(row, c));
+                        if (batched) {
+                            upsert.addBatch();
+                        } else {
+                            upsert.executeUpdate();
+                        }
+                    }
+                }
+                if (batched) {
+                    upsert.executeBatch();
+                    conn.commit();
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static double score(GradebookRow row, int component) {
+        return component == 0 ? row.quiz() : component == 1 ? row.midterm() : row.endsem();
+    }
+
+    // The original InstructorService.saveGrade, including its uncached maintenance check
+    private static void saveGradeBaseline(ErpState state, int enrollmentId, String component, double score)
+            throws Exception {
+        try (Connection conn = state.db.getErpConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT setting_value FROM settings WHERE setting_key = 'maintenance_on'");
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next() && Boolean.parseBoolean(rs.getString("setting_value"))) {
+                throw new Exception("Maintenance Mode ON: Grading is disabled.");
+            }
+        }
+
+        try (Connection conn = state.db.getErpConnection()) {
+            try (PreparedStatement delete = conn.prepareStatement(
+                    "DELETE FROM grades WHERE enrollment_id = ? AND component_name = ?")) {
+                delete.setInt(1, enrollmentId);
+                delete.setString(2, component);
+                delete.executeUpdate();
+            }
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO grades (enrollment_id, component_name, score) VALUES (?, ?, ?)")) {
+                insert.setInt(1, enrollmentId);
+                insert.setString(2, component);
+                insert.setDouble(3, score);
+                insert.executeUpdate();
+            }
+        }
+    }
+}
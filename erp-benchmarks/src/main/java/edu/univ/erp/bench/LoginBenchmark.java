@@ -0,0 +1,38 @@
+package edu.univ.erp.bench;
+
+import edu.univ.erp.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoginBenchmark - AuthService.login with valid credentials
+ *
+ * Dominated by the BCrypt check (cost 10), which is deliberate; the number
+ * shows what a login costs and how many a core can serve.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public User login(ErpState state, Cursor cursor) throws Exception {
+        return state.authService.login(state.studentUsername(cursor.next++), ErpState.PASSWORD);
+    }
+}
@@ -0,0 +1,51 @@
+package edu.univ.erp.bench;
+
+import edu.univ.erp.domain.User;
+import edu.univ.erp.service.NotificationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RegistrationBenchmark - StudentService.register followed by drop
+ *
+ * Each invocation registers the next student for the open section and drops
+ * them again, so the database stays the same size however long it runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrationBenchmark {
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        // register/drop add an in-memory notification per call
+        @TearDown(Level.Iteration)
+        public void clearNotifications(ErpState state) {
+            for (int i = 0; i < state.students; i++) {
+                NotificationService.clearNotifications(state.student(i));
+            }
+        }
+    }
+
+    @Benchmark
+    public void registerAndDrop(ErpState state, Cursor cursor) throws Exception {
+        User student = state.student(cursor.next++);
+        state.studentService.register(student, state.openSection);
+        state.studentService.drop(student, state.openSection);
+    }
+}
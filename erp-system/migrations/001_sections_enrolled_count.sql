@@ -0,0 +1,18 @@
+-- ==========================================
+-- Migration 001: Denormalized seat counter on sections
+-- ==========================================
+-- For databases created before enrolled_count existed.
+-- Fresh installs from setup.sql / testpack.sql already include the column.
+--
+-- Run: mysql -u root -p < migrations/001_sections_enrolled_count.sql
+-- ==========================================
+
+USE univ_erp;
+
+ALTER TABLE sections
+    ADD COLUMN enrolled_count INT NOT NULL DEFAULT 0 AFTER capacity;
+
+-- Backfill from the current enrollments
+UPDATE sections s
+SET enrolled_count = (SELECT COUNT(*) FROM enrollments e WHERE e.section_id = s.section_id)
+WHERE s.section_id > 0;
@@ -0,0 +1,24 @@
+-- ==========================================
+-- Migration 002: One grade row per (enrollment, component)
+-- ==========================================
+-- Grades used to be "replaced" with DELETE + INSERT, which could leave
+-- duplicate rows for the same component. This keeps the newest row of each
+-- (enrollment_id, component_name) pair and adds the unique key that the
+-- upsert in InstructorService relies on.
+--
+-- Run: mysql -u root -p < migrations/002_grades_unique_component.sql
+-- ==========================================
+
+USE univ_erp;
+
+-- Remove older duplicates (the row with the highest grade_id was written last)
+DELETE g
+FROM grades g
+JOIN grades newer
+  ON newer.enrollment_id = g.enrollment_id
+ AND newer.component_name = g.component_name
+ AND newer.grade_id > g.grade_id
+WHERE g.grade_id > 0;
+
+ALTER TABLE grades
+    ADD UNIQUE KEY uq_grades_enrollment_component (enrollment_id, component_name);
@@ -0,0 +1,12 @@
+-- ==========================================
+-- Migration 003: Settings version counter
+-- ==========================================
+-- Clients cache settings (e.g. maintenance mode) and only re-read them when
+-- settings_version changes. AdminService bumps it on every settings write.
+--
+-- Run: mysql -u root -p < migrations/003_settings_version.sql
+-- ==========================================
+
+USE univ_erp;
+
+INSERT IGNORE INTO settings (setting_key, setting_value) VALUES ('settings_version', '0');
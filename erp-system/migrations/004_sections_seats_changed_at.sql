@@ -0,0 +1,16 @@
+-- ==========================================
+-- Migration 004: Seat change feed
+-- ==========================================
+-- Register, drop and the seat-count repair stamp sections.seats_changed_at.
+-- Open catalogs poll the sections changed since their last look
+-- (StudentService.getSeatChanges), so seat counts stay current without
+-- re-running the catalog query.
+--
+-- Run: mysql -u root -p < migrations/004_sections_seats_changed_at.sql
+-- ==========================================
+
+USE univ_erp;
+
+ALTER TABLE sections
+    ADD COLUMN seats_changed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) AFTER enrolled_count,
+    ADD INDEX idx_sections_seats_changed (seats_changed_at);
@@ -68,7 +68,10 @@ CREATE TABLE sections (
     days_times VARCHAR(50),
     room VARCHAR(20),
     capacity INT,
+    enrolled_count INT NOT NULL DEFAULT 0, -- Maintained by register/drop; see AdminService.reconcileEnrollmentCounts
+    seats_changed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), -- Set with every seat change; polled by StudentService.getSeatChanges
     drop_deadline DATE,
+    INDEX idx_sections_seats_changed (seats_changed_at),
     FOREIGN KEY (course_code) REFERENCES courses(course_code),
     FOREIGN KEY (instructor_id) REFERENCES instructors(user_id)
 );
@@ -88,7 +91,8 @@ CREATE TABLE grades (
     enrollment_id INT,
     component_name VARCHAR(50), -- 'Quiz', 'Midterm', 'EndSem'
     score DOUBLE,
-    FOREIGN KEY (enrollment_id) REFERENCES enrollments(enrollment_id)
+    FOREIGN KEY (enrollment_id) REFERENCES enrollments(enrollment_id),
+    UNIQUE KEY uq_grades_enrollment_component (enrollment_id, component_name) -- One row per component; writes are upserts
 );
 
 CREATE TABLE settings (
@@ -97,7 +101,11 @@ CREATE TABLE settings (
 );
 
 -- Initialize Settings
-INSERT INTO settings (setting_key, setting_value) VALUES ('maintenance_on', 'false');
+INSERT INTO settings (setting_key, setting_value) VALUES ('maintenance_on', 'false'),
+('settings_version', '0'), -- Bumped on every settings change; clients poll it to refresh caches
+('weight_quiz', '0.2'), -- Final grade weights (see SettingsRegistry)
+('weight_midterm', '0.3'),
+('weight_endsem', '0.5');
 
 -- ==========================================
 -- 4. Insert Sample Data (Seed)
@@ -139,6 +147,10 @@ INSERT INTO sections (course_code, instructor_id, days_times, room, capacity) VA
 -- Enroll stu1 (user_id=3) into CS101 (section_id=1)
 INSERT INTO enrollments (student_id, section_id) VALUES (3, 1);
 
+-- Sync the denormalized seat counter with the seeded enrollments
+UPDATE sections s SET enrolled_count = (SELECT COUNT(*) FROM enrollments e WHERE e.section_id = s.section_id)
+WHERE s.section_id > 0; -- key predicate keeps Workbench safe-update mode happy
+
 -- ==========================================
 -- Setup Complete!
 -- ==========================================
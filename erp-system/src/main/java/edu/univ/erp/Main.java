@@ -1,19 +1,29 @@
 package edu.univ.erp;
 
 import com.formdev.flatlaf.FlatLightLaf;
+import edu.univ.erp.data.DatabaseFactory;
+import edu.univ.erp.ui.EdtMonitor;
 import edu.univ.erp.ui.LoginScreen;
 
 import javax.swing.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 /**
  * Main entry point for the University ERP System
  * 
  * This class initializes the application and launches the login screen.
- * Database connections are automatically initialized by DatabaseFactory's static block
- * when the first database call is made.
+ * Database pools are started in the background once the login screen is shown,
+ * so they warm up while the user types without competing with the first paint
+ * for CPU; the login flow waits for them if needed (startup figures in SETUP.md).
  */
 public class Main {
     public static void main(String[] args) {
+        long start = System.nanoTime();
+
+        // Optional EDT stall measurement (-Dui.edtMonitor=true), summary printed on exit
+        EdtMonitor.installIfEnabled();
+
         // Initialize FlatLaf Look and Feel for modern UI appearance
         // FlatLaf provides a clean, modern appearance across all platforms
         try {
@@ -25,6 +35,17 @@ public class Main {
 
         // Launch the login screen on the Event Dispatch Thread (EDT)
         // SwingUtilities.invokeLater ensures thread-safety for Swing components
-        SwingUtilities.invokeLater(() -> new LoginScreen().setVisible(true));
+        SwingUtilities.invokeLater(() -> {
+            LoginScreen login = new LoginScreen();
+            login.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowOpened(WindowEvent e) {
+                    System.out.printf("Login screen shown %d ms after start%n", (System.nanoTime() - start) / 1_000_000);
+                    // Start both connection pools off the EDT; nothing here waits for them
+                    new Thread(DatabaseFactory::initAsync, "db-start").start();
+                }
+            });
+            login.setVisible(true);
+        });
     }
 }
@@ -1,31 +1,27 @@
 package edu.univ.erp.access;
 
-import edu.univ.erp.data.DatabaseFactory;
-
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.data.SettingsRegistry;
 
+/**
+ * AccessControl - Maintenance-mode gate for all write operations
+ *
+ * The flag is read from SettingsRegistry's cached snapshot, so checking it on
+ * every register/drop/grade save costs no database round trip. Other clients
+ * see a change within the registry's refresh interval.
+ */
 public final class AccessControl {
 
-    private static final String MAINT_SQL =
-            "SELECT setting_value FROM settings WHERE setting_key = 'maintenance_on'";
-
     private AccessControl() {
         // Utility class
     }
 
     public static boolean isMaintenanceModeOn() {
-        try (Connection conn = DatabaseFactory.getErpConnection();
-             PreparedStatement stmt = conn.prepareStatement(MAINT_SQL);
-             ResultSet rs = stmt.executeQuery()) {
+        return SettingsRegistry.get(SettingsRegistry.MAINTENANCE_ON);
+    }
 
-            if (rs.next()) {
-                return Boolean.parseBoolean(rs.getString("setting_value"));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return false;
+    /** Maintenance flag of the database behind a service's provider */
+    public static boolean isMaintenanceModeOn(DataSourceProvider db) {
+        return SettingsRegistry.of(db).value(SettingsRegistry.MAINTENANCE_ON);
     }
 }
@@ -1,5 +1,6 @@
 package edu.univ.erp.auth;
 
+import edu.univ.erp.data.DataSourceProvider;
 import edu.univ.erp.data.DatabaseFactory;
 import edu.univ.erp.domain.User;
 import edu.univ.erp.domain.UserRole;
@@ -31,6 +32,16 @@ public class AuthService {
     private static final String LOGIN_QUERY =
             "SELECT user_id, role, password_hash, failed_attempts, lockout_until FROM users_auth WHERE username = ? AND status = 'ACTIVE'";
 
+    private final DataSourceProvider db;
+
+    public AuthService() {
+        this(DatabaseFactory.provider());
+    }
+
+    public AuthService(DataSourceProvider db) {
+        this.db = db;
+    }
+
     /**
      * Authenticate a user with username and password
      * 
@@ -48,7 +59,7 @@ public class AuthService {
      * @throws Exception if credentials invalid, account locked, or database error
      */
     public User login(String username, String password) throws Exception {
-        try (Connection conn = DatabaseFactory.getAuthConnection()) {
+        try (Connection conn = db.getAuthConnection()) {
             // Using try-with-resources for automatic connection cleanup
             try (PreparedStatement stmt = conn.prepareStatement(LOGIN_QUERY)) {
                 // Prevent SQL injection by using prepared statement
@@ -126,7 +137,7 @@ public class AuthService {
      * @throws Exception if old password wrong or database error
      */
     public void changePassword(int userId, String oldPassword, String newPassword) throws Exception {
-        try (Connection conn = DatabaseFactory.getAuthConnection()) {
+        try (Connection conn = db.getAuthConnection()) {
             // 1. Verify Old Password - security check to prevent unauthorized changes
             String currentHash = null;
             try (PreparedStatement stmt = conn.prepareStatement("SELECT password_hash FROM users_auth WHERE user_id = ?")) {
@@ -0,0 +1,29 @@
+package edu.univ.erp.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSourceProvider - Source of connections for the services
+ *
+ * Services take a provider in their constructor instead of calling
+ * DatabaseFactory directly, so they can run against the MySQL pools
+ * (DatabaseFactory.provider()) or an EmbeddedDatabase in benchmarks and tests.
+ */
+public interface DataSourceProvider {
+
+    /** Connection to univ_auth (users_auth) */
+    Connection getAuthConnection() throws SQLException;
+
+    /** Connection to univ_erp for writes and read-modify-write transactions */
+    Connection getErpConnection() throws SQLException;
+
+    /** Connection to univ_erp that is only used for reads; may be a replica */
+    default Connection getErpReadConnection() throws SQLException {
+        return getErpConnection();
+    }
+
+    /** Called after a committed ERP write (read-your-writes routing) */
+    default void noteWrite() {
+    }
+}
@@ -3,8 +3,17 @@ package edu.univ.erp.data;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * DatabaseFactory - Manages database connections using HikariCP connection pooling
@@ -12,34 +21,100 @@ import java.sql.SQLException;
  * Design Decisions:
  * - Uses TWO separate databases for security: univ_auth and univ_erp
  * - HikariCP provides efficient connection pooling and management
- * - Static initialization ensures connections are ready before first use
- * - Password can be overridden via system property: -Ddb.password="yourpass"
+ * - Pools are started explicitly by initAsync(): both warm up in parallel on
+ *   background threads while the UI paints; getAuthConnection()/getErpConnection()
+ *   wait for readiness (starting initialization if nobody did) and report a
+ *   failed start as SQLException, so a later call can retry
+ * - URLs, credentials, pool sizes, timeouts and driver properties come from
+ *   db.properties and can be overridden per key (see DbConfig), e.g. -Ddb.password="yourpass"
+ * - Pool statistics are collected by PoolMetrics and exposed via getPoolStats()
+ * - Optional read replica (erp.replica.url): read-only service methods use
+ *   getErpReadConnection(); a ReplicaRoutingProvider over the primary and replica
+ *   pools sends it to the replica unless this client wrote within the last
+ *   erp.replica.stickyMs (read-your-writes); writes always use
+ *   getErpConnection() on the primary
+ * - Optional JDBC instrumentation (jdbc.instrumentation=true): connections are
+ *   wrapped to record per-statement latency histograms in QueryStats and log
+ *   statements slower than jdbc.slowQueryMs; off by default
+ * - Services receive connections through a DataSourceProvider (provider()).
+ *   db.profile=embedded replaces MySQL with an in-memory EmbeddedDatabase seeded
+ *   from db.embedded.script; install() routes everything to any other provider
  * 
  * Security: Authentication data (passwords) kept separate from business data
  */
 public final class DatabaseFactory {
 
     // Connection pools - one for each database
-    private static HikariDataSource authDataSource;  // Handles authentication queries
-    private static HikariDataSource erpDataSource;   // Handles business logic queries
+    private static volatile HikariDataSource authDataSource;  // Handles authentication queries
+    private static volatile HikariDataSource erpDataSource;   // Handles business logic queries
+    private static volatile HikariDataSource erpReplicaDataSource; // Optional: read-only ERP queries
 
-    /**
-     * Static initializer block - runs when class is first loaded
-     * This ensures database connections are established before any queries
-     * If connection fails, application won't start (fail-fast principle)
-     */
-    static {
-        try {
-            initAuthDB();
-            initErpDB();
-        } catch (Exception e) {
-            System.err.println("FATAL: Failed to initialize database connections");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
-            // Throw Error to prevent application from starting with broken DB
-            throw new ExceptionInInitializerError(e);
+    // Set once the replica pool is up; routes ERP reads between the two pools
+    private static volatile ReplicaRoutingProvider replicaRouting;
+
+    // When set, all connections come from here instead of the MySQL pools
+    private static volatile DataSourceProvider installed;
+
+    // Completes when both pools are up; null until initAsync() runs or after a failed start
+    private static volatile CompletableFuture<Void> ready;
+
+    private static final DbConfig config = DbConfig.load();
+    private static final PoolMetrics metrics = new PoolMetrics();
+
+    // null unless jdbc.instrumentation=true
+    private static final JdbcInstrumentation instrumentation =
+            Boolean.parseBoolean(config.get("jdbc.instrumentation", "false"))
+                    ? new JdbcInstrumentation(config.getLong("jdbc.slowQueryMs", 200))
+                    : null;
+
+    // Hands out whatever the static methods below do, so services built with
+    // provider() follow install() and the configured profile
+    private static final DataSourceProvider DEFAULT_PROVIDER = new DataSourceProvider() {
+        @Override
+        public Connection getAuthConnection() throws SQLException {
+            return DatabaseFactory.getAuthConnection();
+        }
+
+        @Override
+        public Connection getErpConnection() throws SQLException {
+            return DatabaseFactory.getErpConnection();
+        }
+
+        @Override
+        public Connection getErpReadConnection() throws SQLException {
+            return DatabaseFactory.getErpReadConnection();
         }
-    }
+
+        @Override
+        public void noteWrite() {
+            DatabaseFactory.noteWrite();
+        }
+    };
+
+    // The MySQL pools as providers; connections are instrumented per pool
+    private static final DataSourceProvider PRIMARY_POOLS = new DataSourceProvider() {
+        @Override
+        public Connection getAuthConnection() throws SQLException {
+            return instrument(authDataSource.getConnection(), "auth");
+        }
+
+        @Override
+        public Connection getErpConnection() throws SQLException {
+            return instrument(erpDataSource.getConnection(), "erp");
+        }
+    };
+
+    private static final DataSourceProvider REPLICA_POOL = new DataSourceProvider() {
+        @Override
+        public Connection getAuthConnection() throws SQLException {
+            return PRIMARY_POOLS.getAuthConnection(); // univ_auth is not replicated
+        }
+
+        @Override
+        public Connection getErpConnection() throws SQLException {
+            return instrument(erpReplicaDataSource.getConnection(), "erp.replica");
+        }
+    };
 
     /**
      * Private constructor prevents instantiation
@@ -49,27 +124,113 @@ public final class DatabaseFactory {
         // Utility class
     }
 
+    /**
+     * Start both pools in parallel without blocking the caller.
+     * Safe to call repeatedly: returns the same future while a start is in
+     * progress or has succeeded, and starts over after a failure.
+     *
+     * @return future completing when both pools accept connections
+     */
+    public static synchronized CompletableFuture<Void> initAsync() {
+        if (ready != null) {
+            return ready;
+        }
+        long start = System.nanoTime();
+        ExecutorService starter = Executors.newFixedThreadPool(3, r -> {
+            Thread t = new Thread(r, "db-init");
+            t.setDaemon(true);
+            return t;
+        });
+
+        if (installed != null || isEmbeddedProfile()) {
+            CompletableFuture<Void> future = installed != null
+                    ? CompletableFuture.completedFuture(null)
+                    : CompletableFuture.runAsync(DatabaseFactory::initEmbedded, starter);
+            return track(future, starter, start);
+        }
+
+        // A pool that came up in an earlier, partly failed attempt is kept
+        CompletableFuture<Void> auth = authDataSource != null
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.runAsync(DatabaseFactory::initAuthDB, starter);
+        CompletableFuture<Void> erp = erpDataSource != null
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.runAsync(DatabaseFactory::initErpDB, starter);
+
+        // The replica is optional: if it cannot start, reads fall back to the primary
+        CompletableFuture<Void> replica = erpReplicaDataSource != null || !hasReplicaConfigured()
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.runAsync(DatabaseFactory::initErpReplicaDB, starter)
+                        .exceptionally(error -> {
+                            System.err.println("ERP read replica unavailable, reading from primary: "
+                                    + rootCause(error).getMessage());
+                            return null;
+                        });
+
+        return track(CompletableFuture.allOf(auth, erp, replica), starter, start);
+    }
+
+    // Publish the start future and clear it again if the start fails
+    private static CompletableFuture<Void> track(CompletableFuture<Void> future, ExecutorService starter, long start) {
+        ready = future;
+        future.whenComplete((ignored, error) -> {
+            starter.shutdown();
+            if (error == null) {
+                System.out.printf("Database pools ready in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+            } else {
+                System.err.println("Failed to initialize database connections: " + rootCause(error).getMessage());
+                synchronized (DatabaseFactory.class) {
+                    if (ready == future) {
+                        ready = null;
+                    }
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Block until both pools are ready, starting them if needed.
+     *
+     * @throws SQLException if a pool could not be started
+     */
+    public static void awaitReady() throws SQLException {
+        CompletableFuture<Void> future = ready;
+        if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+            return; // Fast path once started: no lock
+        }
+        future = initAsync();
+        try {
+            future.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = rootCause(e);
+            throw new SQLException("Database unavailable: " + cause.getMessage(), cause);
+        }
+    }
+
+    public static boolean isReady() {
+        CompletableFuture<Void> future = ready;
+        return future != null && future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    private static Throwable rootCause(Throwable t) {
+        while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+
     /**
      * Initialize connection pool for Authentication database
      * 
      * Database: univ_auth
      * Contains: users_auth table (usernames, password hashes, roles)
-     * Pool Size: 5 connections (smaller since auth queries are fast)
+     * Pool Size: auth.pool.max (default 5; auth queries are fast)
      */
     private static void initAuthDB() {
         try {
-            HikariConfig config = new HikariConfig();
-            config.setJdbcUrl("jdbc:mysql://localhost:3306/univ_auth");
-            config.setUsername("root");
-            
-            // Password can be overridden: mvn exec:java -Ddb.password="yourpass"
-            // Falls back to "Punya@52" if not specified
-            String pass = System.getProperty("db.password", "Punya@52");
-            config.setPassword(pass);
-            
-            // Auth queries are fast, so smaller pool is sufficient
-            config.setMaximumPoolSize(5);
-            authDataSource = new HikariDataSource(config);
+            authDataSource = new HikariDataSource(buildConfig("auth",
+                    "jdbc:mysql://localhost:3306/univ_auth", 5, 1));
             System.out.println("Auth database connection initialized successfully");
         } catch (Exception e) {
             System.err.println("Failed to initialize Auth database connection");
@@ -82,21 +243,12 @@ public final class DatabaseFactory {
      * 
      * Database: univ_erp
      * Contains: students, instructors, courses, sections, enrollments, grades
-     * Pool Size: 10 connections (larger for concurrent business operations)
+     * Pool Size: erp.pool.max (default 10; larger for concurrent business operations)
      */
     private static void initErpDB() {
         try {
-            HikariConfig config = new HikariConfig();
-            config.setJdbcUrl("jdbc:mysql://localhost:3306/univ_erp");
-            config.setUsername("root");
-            
-            // Same password as auth database
-            String pass = System.getProperty("db.password", "Punya@52");
-            config.setPassword(pass);
-            
-            // Larger pool for business operations (registration, grading, etc.)
-            config.setMaximumPoolSize(10);
-            erpDataSource = new HikariDataSource(config);
+            erpDataSource = new HikariDataSource(buildConfig("erp",
+                    "jdbc:mysql://localhost:3306/univ_erp", 10, 2));
             System.out.println("ERP database connection initialized successfully");
         } catch (Exception e) {
             System.err.println("Failed to initialize ERP database connection");
@@ -104,6 +256,123 @@ public final class DatabaseFactory {
         }
     }
 
+    /**
+     * Initialize the optional read-only pool for an ERP replica
+     *
+     * Database: copy of univ_erp at erp.replica.url (e.g. a MySQL replica)
+     * Pool Size: erp.replica.pool.max (default 10)
+     */
+    private static void initErpReplicaDB() {
+        HikariConfig hc = buildConfig("erp.replica", null, 10, 2);
+        hc.setReadOnly(true);
+        erpReplicaDataSource = new HikariDataSource(hc);
+        replicaRouting = new ReplicaRoutingProvider(PRIMARY_POOLS, REPLICA_POOL,
+                config.getLong("erp.replica.stickyMs", 5000));
+        System.out.println("ERP read replica connection initialized successfully");
+    }
+
+    /**
+     * Start the in-memory databases for db.profile=embedded
+     *
+     * Seed: db.embedded.script (default setup.sql; testpack.sql for the full data set)
+     * Pool Size: erp.pool.max (default 10)
+     */
+    private static void initEmbedded() {
+        String script = config.get("db.embedded.script", "setup.sql");
+        try {
+            installed = EmbeddedDatabase.start(Path.of(script), config.getInt("erp.pool.max", 10));
+            System.out.println("Embedded database initialized from " + script);
+        } catch (Exception e) {
+            System.err.println("Failed to initialize embedded database from " + script);
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private static boolean isEmbeddedProfile() {
+        return config.get("db.profile", "mysql").equalsIgnoreCase("embedded");
+    }
+
+    private static boolean hasReplicaConfigured() {
+        return !config.get("erp.replica.url", "").isEmpty();
+    }
+
+    /**
+     * Pool configuration for one database; keys are prefixed with the pool name
+     * ("auth.url", "erp.pool.max"), timeouts and driver properties are shared.
+     */
+    private static HikariConfig buildConfig(String name, String defaultUrl, int defaultMax, int defaultMinIdle) {
+        HikariConfig hc = new HikariConfig();
+        hc.setPoolName(name);
+        hc.setJdbcUrl(config.get(name + ".url", defaultUrl));
+        hc.setUsername(config.getUser());
+        hc.setPassword(config.getPassword());
+
+        hc.setMaximumPoolSize(config.getInt(name + ".pool.max", defaultMax));
+        hc.setMinimumIdle(config.getInt(name + ".pool.minIdle", defaultMinIdle));
+        hc.setConnectionTimeout(config.getLong("pool.connectionTimeoutMs", 10_000));
+        hc.setIdleTimeout(config.getLong("pool.idleTimeoutMs", 600_000));
+        hc.setMaxLifetime(config.getLong("pool.maxLifetimeMs", 1_800_000));
+        hc.setLeakDetectionThreshold(config.getLong("pool.leakDetectionMs", 0));
+
+        // Statement caching, batch rewriting etc. (see db.properties)
+        for (Map.Entry<String, String> prop : config.getDriverProperties().entrySet()) {
+            hc.addDataSourceProperty(prop.getKey(), prop.getValue());
+        }
+
+        hc.setMetricsTrackerFactory(metrics);
+        return hc;
+    }
+
+    /**
+     * Current statistics of both pools: live active / idle / pending counts plus
+     * connection wait and hold times since startup.
+     */
+    public static List<PoolMetrics.Snapshot> getPoolStats() {
+        return metrics.snapshot();
+    }
+
+    // Shared with EmbeddedDatabase so its pools show up in getPoolStats() too
+    static PoolMetrics poolMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Connection source for the services; follows install() and db.profile.
+     */
+    public static DataSourceProvider provider() {
+        return DEFAULT_PROVIDER;
+    }
+
+    /**
+     * Route every connection to the given provider instead of the MySQL pools
+     * (benchmarks, tests, load tools). Must be called before anything connects;
+     * process-wide caches such as CatalogCache and SettingsRegistry read
+     * through here as well.
+     */
+    public static synchronized void install(DataSourceProvider provider) {
+        installed = provider;
+        ready = null;
+        SettingsRegistry.release(DEFAULT_PROVIDER); // Cached settings came from the previous route
+    }
+
+    /**
+     * Whether connections are wrapped for QueryStats (jdbc.instrumentation)
+     */
+    public static boolean isInstrumentationEnabled() {
+        return instrumentation != null;
+    }
+
+    private static Connection instrument(Connection conn, String pool) {
+        return instrumentation == null ? conn : instrumentation.wrap(conn, pool);
+    }
+
+    /**
+     * Database settings in effect (used by backup / restore for the mysql tools)
+     */
+    public static DbConfig getConfig() {
+        return config;
+    }
+
     /**
      * Get a connection from the Auth database pool
      * Used for: Login, password changes, user authentication
@@ -112,7 +381,9 @@ public final class DatabaseFactory {
      * @throws SQLException if no connection available or database error
      */
     public static Connection getAuthConnection() throws SQLException {
-        return authDataSource.getConnection();
+        awaitReady();
+        DataSourceProvider p = installed;
+        return p != null ? instrument(p.getAuthConnection(), "auth") : mysqlPools().getAuthConnection();
     }
 
     /**
@@ -123,6 +394,41 @@ public final class DatabaseFactory {
      * @throws SQLException if no connection available or database error
      */
     public static Connection getErpConnection() throws SQLException {
-        return erpDataSource.getConnection();
+        awaitReady();
+        DataSourceProvider p = installed;
+        return p != null ? instrument(p.getErpConnection(), "erp") : mysqlPools().getErpConnection();
+    }
+
+    /**
+     * Get a connection for read-only ERP queries
+     * Used for: Catalog, schedules, class lists, transcripts, dropdowns
+     * 
+     * Served by the replica pool when one is configured, except within
+     * erp.replica.stickyMs after noteWrite(), so a user always sees their own
+     * registrations and grade changes (see ReplicaRoutingProvider). Without a
+     * replica this is the primary.
+     * 
+     * @return Connection that must only be used for reads
+     * @throws SQLException if no connection available or database error
+     */
+    public static Connection getErpReadConnection() throws SQLException {
+        awaitReady();
+        DataSourceProvider p = installed;
+        return p != null ? instrument(p.getErpReadConnection(), "erp") : mysqlPools().getErpReadConnection();
+    }
+
+    /**
+     * Record that this client just committed a write, so its reads go to the
+     * primary until the replica has had time to catch up.
+     */
+    public static void noteWrite() {
+        DataSourceProvider p = installed;
+        (p != null ? p : mysqlPools()).noteWrite();
+    }
+
+    // Primary pools, behind replica routing once a replica is up
+    private static DataSourceProvider mysqlPools() {
+        ReplicaRoutingProvider routing = replicaRouting;
+        return routing != null ? routing : PRIMARY_POOLS;
     }
 }
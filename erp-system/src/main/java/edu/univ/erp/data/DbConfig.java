@@ -0,0 +1,106 @@
+package edu.univ.erp.data;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * DbConfig - Database settings loaded from db.properties
+ *
+ * Lookup order for every key (first hit wins):
+ * 1. JVM system property (-Ddb.password=...)
+ * 2. Environment variable (DB_PASSWORD: upper case, '.' -> '_')
+ * 3. External file named by -Ddb.config=/path/to/db.properties
+ * 4. db.properties on the classpath
+ */
+public final class DbConfig {
+
+    private static final String RESOURCE = "/db.properties";
+    private static final String DRIVER_PREFIX = "driver.";
+
+    private final Properties props = new Properties();
+
+    private DbConfig() {
+    }
+
+    public static DbConfig load() {
+        DbConfig config = new DbConfig();
+        try (InputStream in = DbConfig.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                config.props.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read " + RESOURCE + ": " + e.getMessage());
+        }
+
+        String external = System.getProperty("db.config");
+        if (external != null) {
+            try (InputStream in = new FileInputStream(external)) {
+                config.props.load(in);
+            } catch (IOException e) {
+                System.err.println("Could not read db.config file " + external + ": " + e.getMessage());
+            }
+        }
+        return config;
+    }
+
+    public String get(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = System.getenv(key.toUpperCase(Locale.ROOT).replace('.', '_'));
+        }
+        if (value == null) {
+            value = props.getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(get(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public long getLong(String key, long defaultValue) {
+        try {
+            return Long.parseLong(get(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public String getUser() {
+        return get("db.user", "root");
+    }
+
+    public String getPassword() {
+        return get("db.password", "");
+    }
+
+    /**
+     * Driver properties: every "driver.x" key, with the prefix removed.
+     * System properties of the same form are included and take precedence.
+     */
+    public Map<String, String> getDriverProperties() {
+        Map<String, String> driver = new TreeMap<>();
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith(DRIVER_PREFIX)) {
+                driver.put(key.substring(DRIVER_PREFIX.length()), get(key, props.getProperty(key)));
+            }
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith(DRIVER_PREFIX)) {
+                driver.put(key.substring(DRIVER_PREFIX.length()), System.getProperty(key).trim());
+            }
+        }
+        return driver;
+    }
+}
@@ -0,0 +1,196 @@
+package edu.univ.erp.data;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EmbeddedDatabase - In-memory univ_auth / univ_erp pair for running without MySQL
+ *
+ * Design Decisions:
+ * - H2 in MySQL compatibility mode, so the services' SQL (AUTO_INCREMENT,
+ *   ON DUPLICATE KEY UPDATE, FOR UPDATE, ...) runs unchanged
+ * - Bootstrapped from the same scripts as a real install (setup.sql or
+ *   testpack.sql): statements are routed to the auth or ERP database by the
+ *   script's USE lines; DROP/CREATE DATABASE lines are skipped
+ * - Each instance gets unique database names, so several can run side by side
+ *   (e.g. one per benchmark fork or concurrency test)
+ * - Pooled with HikariCP like the real databases, so concurrency behaves alike;
+ *   the pools report to the same PoolMetrics (DatabaseFactory.getPoolStats())
+ *
+ * Used by DatabaseFactory when db.profile=embedded, or directly as a
+ * DataSourceProvider by benchmarks and load tools.
+ */
+public final class EmbeddedDatabase implements DataSourceProvider, AutoCloseable {
+
+    // DATABASE_TO_LOWER keeps unquoted names lower case like MySQL on Linux;
+    // YEAR and VALUE are column names in the schema but keywords in H2
+    private static final String URL_OPTIONS =
+            ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=YEAR,VALUE;DB_CLOSE_DELAY=-1";
+
+    private static final AtomicInteger instances = new AtomicInteger();
+
+    private final HikariDataSource authDataSource;
+    private final HikariDataSource erpDataSource;
+
+    private EmbeddedDatabase(HikariDataSource authDataSource, HikariDataSource erpDataSource) {
+        this.authDataSource = authDataSource;
+        this.erpDataSource = erpDataSource;
+    }
+
+    /**
+     * Create a fresh pair of in-memory databases and run the seed script.
+     *
+     * @param script setup.sql, testpack.sql or any script in the same format
+     * @param poolSize maximum connections per database
+     */
+    public static EmbeddedDatabase start(Path script, int poolSize) throws SQLException, IOException {
+        return start(Files.readString(script, StandardCharsets.UTF_8), poolSize);
+    }
+
+    /**
+     * Same as start(Path, int) with the script given as text.
+     */
+    public static EmbeddedDatabase start(String script, int poolSize) throws SQLException {
+        String name = "erp" + instances.incrementAndGet();
+        HikariDataSource auth = pool(name + "-auth", "jdbc:h2:mem:" + name + "_auth" + URL_OPTIONS, poolSize);
+        HikariDataSource erp = null;
+        try {
+            erp = pool(name + "-erp", "jdbc:h2:mem:" + name + "_erp" + URL_OPTIONS, poolSize);
+            EmbeddedDatabase db = new EmbeddedDatabase(auth, erp);
+            db.runScript(script);
+            return db;
+        } catch (SQLException | RuntimeException e) {
+            if (erp != null) erp.close();
+            auth.close();
+            throw e;
+        }
+    }
+
+    private static HikariDataSource pool(String name, String url, int poolSize) {
+        HikariConfig hc = new HikariConfig();
+        hc.setPoolName(name);
+        hc.setJdbcUrl(url);
+        hc.setUsername("sa");
+        hc.setPassword("");
+        hc.setMaximumPoolSize(poolSize);
+        hc.setMinimumIdle(1);
+        hc.setMetricsTrackerFactory(DatabaseFactory.poolMetrics());
+        return new HikariDataSource(hc);
+    }
+
+    /**
+     * Run a MySQL seed script against this pair of databases. Statements before
+     * the first USE go to the ERP database.
+     */
+    public void runScript(String script) throws SQLException {
+        try (Connection authConn = authDataSource.getConnection();
+             Connection erpConn = erpDataSource.getConnection();
+             Statement authStmt = authConn.createStatement();
+             Statement erpStmt = erpConn.createStatement()) {
+
+            Statement target = erpStmt;
+            for (String sql : splitStatements(script)) {
+                String upper = sql.toUpperCase();
+                if (upper.startsWith("USE ")) {
+                    String db = sql.substring(4).trim().toLowerCase();
+                    if (db.equals("univ_auth")) {
+                        target = authStmt;
+                    } else if (db.equals("univ_erp")) {
+                        target = erpStmt;
+                    } else {
+                        throw new SQLException("Unknown database in seed script: " + db);
+                    }
+                } else if (upper.startsWith("CREATE DATABASE") || upper.startsWith("DROP DATABASE")) {
+                    continue; // Each instance already starts empty
+                } else {
+                    try {
+                        target.execute(sql);
+                    } catch (SQLException e) {
+                        throw new SQLException("Seed statement failed: " + e.getMessage() + "\n" + sql, e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Split a script into statements on ';', ignoring semicolons inside quotes
+     * and dropping "--" and "#" line comments.
+     */
+    static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        char quote = 0;
+        int n = script.length();
+        for (int i = 0; i < n; i++) {
+            char c = script.charAt(i);
+            if (quote != 0) {
+                current.append(c);
+                if (c == '\\' && i + 1 < n) {
+                    current.append(script.charAt(++i));
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+                current.append(c);
+            } else if ((c == '-' && i + 1 < n && script.charAt(i + 1) == '-') || c == '#') {
+                while (i < n && script.charAt(i) != '\n') {
+                    i++;
+                }
+                current.append('\n');
+            } else if (c == ';') {
+                addStatement(statements, current);
+            } else {
+                current.append(c);
+            }
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String sql = current.toString().trim();
+        if (!sql.isEmpty()) {
+            statements.add(sql);
+        }
+        current.setLength(0);
+    }
+
+    @Override
+    public Connection getAuthConnection() throws SQLException {
+        return authDataSource.getConnection();
+    }
+
+    @Override
+    public Connection getErpConnection() throws SQLException {
+        return erpDataSource.getConnection();
+    }
+
+    /**
+     * Drop both databases and close the pools.
+     */
+    @Override
+    public void close() {
+        SettingsRegistry.release(this);
+        for (HikariDataSource ds : new HikariDataSource[]{authDataSource, erpDataSource}) {
+            try (Connection conn = ds.getConnection(); Statement stmt = conn.createStatement()) {
+                stmt.execute("SHUTDOWN");
+            } catch (SQLException e) {
+                // Already gone; nothing to release
+            }
+            ds.close();
+        }
+    }
+}
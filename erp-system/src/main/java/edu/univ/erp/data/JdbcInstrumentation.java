@@ -0,0 +1,224 @@
+package edu.univ.erp.data;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * JdbcInstrumentation - Wraps pooled connections to time every statement
+ *
+ * - Each execute call is timed and recorded in QueryStats under a normalized SQL
+ *   fingerprint (literals and IN lists replaced, whitespace collapsed), so the
+ *   same statement with different values aggregates into one histogram
+ * - Rows returned are counted as the ResultSet is read; update counts are
+ *   recorded for writes
+ * - The time between getConnection() and close() is recorded per pool
+ * - Statements slower than jdbc.slowQueryMs are printed to stderr
+ *
+ * When jdbc.instrumentation is false (the default) DatabaseFactory hands out the
+ * pooled connections unchanged, so there is no overhead at all.
+ */
+final class JdbcInstrumentation {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Prepared SQL strings are few and reused, so their fingerprints are cached
+    private static final int MAX_CACHED_FINGERPRINTS = 2000;
+    private static final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    private final long slowQueryNanos;
+
+    JdbcInstrumentation(long slowQueryMillis) {
+        this.slowQueryNanos = slowQueryMillis * 1_000_000;
+    }
+
+    Connection wrap(Connection target, String pool) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(target, pool));
+    }
+
+    static String fingerprint(String sql) {
+        if (sql == null) {
+            return "(null)";
+        }
+        String cached = fingerprints.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String fp = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fp = NUMBER_LITERAL.matcher(fp).replaceAll("?");
+        fp = WHITESPACE.matcher(fp).replaceAll(" ").trim();
+        fp = IN_LIST.matcher(fp).replaceAll("(?...)");
+        if (fingerprints.size() < MAX_CACHED_FINGERPRINTS) {
+            fingerprints.put(sql, fp);
+        }
+        return fp;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void record(String sql, long nanos, long rows, boolean failed) {
+        String fp = fingerprint(sql);
+        QueryStats.recordStatement(fp, nanos, rows, failed);
+        if (nanos >= slowQueryNanos) {
+            System.err.printf("[slow-query] %.1f ms rows=%d%s %s%n",
+                    nanos / 1_000_000.0, rows, failed ? " FAILED" : "", fp);
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final String pool;
+        private final long openedAt = System.nanoTime();
+        private boolean closed;
+
+        ConnectionHandler(Connection target, String pool) {
+            this.target = target;
+            this.pool = pool;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close")) {
+                if (!closed) {
+                    closed = true;
+                    QueryStats.recordHold(pool, System.nanoTime() - openedAt);
+                }
+                return JdbcInstrumentation.invoke(target, method, args);
+            }
+
+            Object result = JdbcInstrumentation.invoke(target, method, args);
+            if (result instanceof Statement && (name.equals("prepareStatement") || name.equals("prepareCall")
+                    || name.equals("createStatement"))) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, new StatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;   // null for plain Statements
+        private ResultSetHandler openResult;
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if (name.equals("close")) {
+                    // Closing the statement closes its ResultSet without going through our proxy
+                    flushOpenResult();
+                }
+                return JdbcInstrumentation.invoke(target, method, args);
+            }
+
+            flushOpenResult();
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = JdbcInstrumentation.invoke(target, method, args);
+            } catch (Throwable t) {
+                record(sql, System.nanoTime() - start, 0, true);
+                throw t;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            if (result instanceof ResultSet) {
+                // Rows are counted while the caller reads; recorded on close
+                return wrapResultSet((ResultSet) result, sql, elapsed);
+            }
+            record(sql, elapsed, updateCount(result), false);
+            return result;
+        }
+
+        private long updateCount(Object result) {
+            if (result instanceof Integer) return (Integer) result;
+            if (result instanceof Long) return (Long) result;
+            if (result instanceof int[]) {
+                long sum = 0;
+                for (int n : (int[]) result) sum += Math.max(n, 0);
+                return sum;
+            }
+            return 0;
+        }
+
+        private ResultSet wrapResultSet(ResultSet rs, String sql, long executeNanos) {
+            openResult = new ResultSetHandler(rs, sql, executeNanos);
+            return (ResultSet) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, openResult);
+        }
+
+        private void flushOpenResult() {
+            if (openResult != null) {
+                openResult.recordOnce();
+                openResult = null;
+            }
+        }
+    }
+
+    private final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final String sql;
+        private final long executeNanos;
+        private long fetchNanos;
+        private long rows;
+        private boolean recorded;
+
+        ResultSetHandler(ResultSet target, String sql, long executeNanos) {
+            this.target = target;
+            this.sql = sql;
+            this.executeNanos = executeNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("next")) {
+                long start = System.nanoTime();
+                Object result = JdbcInstrumentation.invoke(target, method, args);
+                // Streaming drivers fetch while iterating; count that time too
+                fetchNanos += System.nanoTime() - start;
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                }
+                return result;
+            }
+            if (name.equals("close")) {
+                recordOnce();
+            }
+            return JdbcInstrumentation.invoke(target, method, args);
+        }
+
+        void recordOnce() {
+            if (!recorded) {
+                recorded = true;
+                record(sql, executeNanos + fetchNanos, rows, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package edu.univ.erp.data;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PoolMetrics - Collects HikariCP pool statistics for sizing the pools
+ *
+ * Installed as the MetricsTrackerFactory of every pool. Hikari reports each
+ * connection checkout (wait time), each checkin (time the connection was held)
+ * and each checkout timeout; the live gauges (active / idle / pending) come from
+ * the pool itself.
+ */
+public final class PoolMetrics implements MetricsTrackerFactory {
+
+    /** Point-in-time view of one pool */
+    public record Snapshot(String pool, int active, int idle, int total, int pending, int max,
+                           long acquired, double avgAcquireMillis, double maxAcquireMillis,
+                           double avgUsageMillis, long maxUsageMillis, long timeouts) {}
+
+    private final Map<String, Tracker> trackers = new ConcurrentHashMap<>();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        Tracker tracker = new Tracker(poolName, poolStats, trackers);
+        trackers.put(poolName, tracker);
+        return tracker;
+    }
+
+    /** Snapshots of all pools, ordered by pool name */
+    public List<Snapshot> snapshot() {
+        List<Snapshot> list = new ArrayList<>();
+        for (Tracker tracker : trackers.values()) {
+            list.add(tracker.snapshot());
+        }
+        list.sort((a, b) -> a.pool().compareTo(b.pool()));
+        return list;
+    }
+
+    private static final class Tracker implements IMetricsTracker {
+        private final String poolName;
+        private final PoolStats poolStats;
+        private final Map<String, Tracker> registry;
+
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final AtomicLong maxAcquireNanos = new AtomicLong();
+        private final LongAdder released = new LongAdder();
+        private final LongAdder usageMillis = new LongAdder();
+        private final AtomicLong maxUsageMillis = new AtomicLong();
+        private final LongAdder timeouts = new LongAdder();
+
+        Tracker(String poolName, PoolStats poolStats, Map<String, Tracker> registry) {
+            this.poolName = poolName;
+            this.poolStats = poolStats;
+            this.registry = registry;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquired.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            released.increment();
+            usageMillis.add(elapsedBorrowedMillis);
+            maxUsageMillis.accumulateAndGet(elapsedBorrowedMillis, Math::max);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        // Called when the pool shuts down (e.g. a closed EmbeddedDatabase)
+        @Override
+        public void close() {
+            registry.remove(poolName, this);
+        }
+
+        Snapshot snapshot() {
+            long n = acquired.sum();
+            long r = released.sum();
+            return new Snapshot(poolName,
+                    poolStats.getActiveConnections(),
+                    poolStats.getIdleConnections(),
+                    poolStats.getTotalConnections(),
+                    poolStats.getPendingThreads(),
+                    poolStats.getMaxConnections(),
+                    n,
+                    n == 0 ? 0 : acquireNanos.sum() / 1_000_000.0 / n,
+                    maxAcquireNanos.get() / 1_000_000.0,
+                    r == 0 ? 0 : (double) usageMillis.sum() / r,
+                    maxUsageMillis.get(),
+                    timeouts.sum());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package edu.univ.erp.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * QueryStats - Latency histograms per SQL fingerprint and connection hold times per pool
+ *
+ * Latencies go into log2 buckets of microseconds (bucket i holds values below
+ * 2^i us), so recording is a few atomic adds and percentiles are accurate to
+ * within a factor of two, which is enough to find the statements that matter.
+ */
+public final class QueryStats {
+
+    private static final int BUCKETS = 40;
+
+    /** Aggregated view of one histogram */
+    public record Entry(String key, long count, long errors, long rows,
+                        double totalMillis, double avgMillis,
+                        double p50Millis, double p95Millis, double p99Millis, double maxMillis) {}
+
+    private static final Map<String, Histogram> statements = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> holds = new ConcurrentHashMap<>();
+
+    private QueryStats() {
+        // Utility class
+    }
+
+    static void recordStatement(String fingerprint, long nanos, long rows, boolean failed) {
+        statements.computeIfAbsent(fingerprint, k -> new Histogram()).record(nanos, rows, failed);
+    }
+
+    static void recordHold(String pool, long nanos) {
+        holds.computeIfAbsent(pool, k -> new Histogram()).record(nanos, 0, false);
+    }
+
+    /** Statement statistics, most total time first */
+    public static List<Entry> statements() {
+        return snapshot(statements);
+    }
+
+    /** Connection hold time statistics per pool */
+    public static List<Entry> connectionHolds() {
+        return snapshot(holds);
+    }
+
+    public static void reset() {
+        statements.clear();
+        holds.clear();
+    }
+
+    private static List<Entry> snapshot(Map<String, Histogram> source) {
+        List<Entry> list = new ArrayList<>();
+        for (Map.Entry<String, Histogram> e : source.entrySet()) {
+            list.add(e.getValue().toEntry(e.getKey()));
+        }
+        list.sort(Comparator.comparingDouble(Entry::totalMillis).reversed());
+        return list;
+    }
+
+    private static final class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos, long rowCount, boolean failed) {
+            long micros = Math.max(nanos / 1000, 0);
+            int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            totalNanos.add(nanos);
+            rows.add(rowCount);
+            if (failed) {
+                errors.increment();
+            }
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Entry toEntry(String key) {
+            long[] copy = new long[BUCKETS];
+            long n = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                copy[i] = buckets.get(i);
+                n += copy[i];
+            }
+            double total = totalNanos.sum() / 1_000_000.0;
+            double max = maxNanos.get() / 1_000_000.0;
+            // A bucket's upper bound can exceed the largest value actually seen
+            return new Entry(key, n, errors.sum(), rows.sum(), total,
+                    n == 0 ? 0 : total / n,
+                    Math.min(percentile(copy, n, 0.50), max),
+                    Math.min(percentile(copy, n, 0.95), max),
+                    Math.min(percentile(copy, n, 0.99), max),
+                    max);
+        }
+
+        // Upper bound of the bucket holding the requested rank, in milliseconds
+        private static double percentile(long[] counts, long n, double p) {
+            if (n == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(p * n);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return (1L << i) / 1000.0;
+                }
+            }
+            return (1L << (counts.length - 1)) / 1000.0;
+        }
+    }
+}
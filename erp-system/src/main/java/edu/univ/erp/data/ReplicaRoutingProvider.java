@@ -0,0 +1,67 @@
+package edu.univ.erp.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * ReplicaRoutingProvider - Sends ERP reads to a replica, everything else to the primary
+ *
+ * Design Decisions:
+ * - Auth connections and ERP writes always come from the primary provider;
+ *   getErpReadConnection() comes from the replica provider
+ * - Read-your-writes: after noteWrite(), reads go to the primary for
+ *   stickyMillis, long enough for the replica to apply the write; the window
+ *   is per instance, i.e. per client process
+ * - Works over any two providers, so the routing can be tested with two
+ *   EmbeddedDatabase instances; DatabaseFactory puts one over the MySQL pools
+ *   when erp.replica.url is set
+ */
+public final class ReplicaRoutingProvider implements DataSourceProvider {
+
+    private final DataSourceProvider primary;
+    private final DataSourceProvider replica;
+    private final long stickyNanos;
+
+    // Reads go to the primary until this time (System.nanoTime) after a write
+    private volatile long primaryReadsUntil = System.nanoTime();
+
+    /**
+     * @param primary      source of auth connections, ERP writes and reads right after a write
+     * @param replica      source of the other ERP reads
+     * @param stickyMillis how long reads stay on the primary after noteWrite()
+     */
+    public ReplicaRoutingProvider(DataSourceProvider primary, DataSourceProvider replica, long stickyMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.stickyNanos = stickyMillis * 1_000_000;
+    }
+
+    @Override
+    public Connection getAuthConnection() throws SQLException {
+        return primary.getAuthConnection();
+    }
+
+    @Override
+    public Connection getErpConnection() throws SQLException {
+        return primary.getErpConnection();
+    }
+
+    @Override
+    public Connection getErpReadConnection() throws SQLException {
+        if (readsFromPrimary()) {
+            return primary.getErpConnection();
+        }
+        return replica.getErpReadConnection();
+    }
+
+    @Override
+    public void noteWrite() {
+        primaryReadsUntil = System.nanoTime() + stickyNanos;
+        primary.noteWrite();
+    }
+
+    /** Whether a read now would go to the primary (within the window after a write) */
+    public boolean readsFromPrimary() {
+        return System.nanoTime() - primaryReadsUntil < 0;
+    }
+}
@@ -0,0 +1,210 @@
+package edu.univ.erp.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * SettingsRegistry - Typed, cached view of the settings table
+ *
+ * Design:
+ * - One registry per DataSourceProvider (of(db)), so a service built on an
+ *   EmbeddedDatabase reads that database's settings, not the MySQL pools'.
+ *   The static shortcuts use the application's provider, DatabaseFactory.provider()
+ * - All rows are loaded into an immutable Snapshot held in a volatile field;
+ *   reads are a plain field read plus a map lookup, no locks and no queries
+ * - A snapshot is trusted for TTL_MS. After that, one thread checks the
+ *   settings_version row and reloads the whole table only if the version moved;
+ *   other threads keep reading the previous snapshot meanwhile
+ * - invalidate() drops the snapshot so the next read reloads it; AdminService
+ *   calls it after every settings write
+ *
+ * New settings need only a Setting constant here and, optionally, a row in the
+ * settings table; a missing or unparsable value falls back to the default.
+ */
+public final class SettingsRegistry {
+
+    /** A typed setting key with its default value */
+    public record Setting<T>(String key, T defaultValue, Function<String, T> parser) {}
+
+    public static final Setting<Boolean> MAINTENANCE_ON =
+            new Setting<>("maintenance_on", false, Boolean::parseBoolean);
+
+    // Weighting of the three grade components in the final grade
+    public static final Setting<Double> QUIZ_WEIGHT =
+            new Setting<>("weight_quiz", 0.2, Double::parseDouble);
+    public static final Setting<Double> MIDTERM_WEIGHT =
+            new Setting<>("weight_midterm", 0.3, Double::parseDouble);
+    public static final Setting<Double> ENDSEM_WEIGHT =
+            new Setting<>("weight_endsem", 0.5, Double::parseDouble);
+
+    private static final String VERSION_KEY = "settings_version";
+
+    // Upper bound on how stale a setting can be in another client
+    private static final long TTL_MS = 2000;
+
+    private static final String LOAD_SQL = "SELECT setting_key, setting_value FROM settings";
+    private static final String VERSION_SQL =
+            "SELECT setting_value FROM settings WHERE setting_key = '" + VERSION_KEY + "'";
+
+    /** Immutable set of setting values as of one load */
+    public static final class Snapshot {
+        private final Map<String, String> values;
+        private final long version;
+        private final long checkedAt;
+
+        private Snapshot(Map<String, String> values, long version, long checkedAt) {
+            this.values = values;
+            this.version = version;
+            this.checkedAt = checkedAt;
+        }
+
+        public <T> T get(Setting<T> setting) {
+            String raw = values.get(setting.key());
+            if (raw == null) {
+                return setting.defaultValue();
+            }
+            try {
+                return setting.parser().apply(raw.trim());
+            } catch (RuntimeException e) {
+                return setting.defaultValue();
+            }
+        }
+
+        private Snapshot recheckedAt(long now) {
+            return new Snapshot(values, version, now);
+        }
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), -1, 0);
+
+    // Providers are long-lived (the application's, or one per embedded database)
+    private static final Map<DataSourceProvider, SettingsRegistry> REGISTRIES = new ConcurrentHashMap<>();
+
+    private final DataSourceProvider db;
+
+    private volatile Snapshot snapshot;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private SettingsRegistry(DataSourceProvider db) {
+        this.db = db;
+    }
+
+    /**
+     * Registry for the settings table behind a provider; one shared instance per provider.
+     */
+    public static SettingsRegistry of(DataSourceProvider db) {
+        return REGISTRIES.computeIfAbsent(db, SettingsRegistry::new);
+    }
+
+    /**
+     * Value of one setting from the application's current snapshot.
+     */
+    public static <T> T get(Setting<T> setting) {
+        return of(DatabaseFactory.provider()).current().get(setting);
+    }
+
+    // Called when a provider is closed or re-routed
+    static void release(DataSourceProvider db) {
+        REGISTRIES.remove(db);
+    }
+
+    /**
+     * Value of one setting from this registry's current snapshot.
+     */
+    public <T> T value(Setting<T> setting) {
+        return current().get(setting);
+    }
+
+    /**
+     * Current snapshot; use it when several settings must come from the same load.
+     */
+    public Snapshot current() {
+        Snapshot s = snapshot;
+        if (s != null && System.currentTimeMillis() - s.checkedAt < TTL_MS) {
+            return s;
+        }
+        if (s == null) {
+            // Nothing to serve yet: wait for the load
+            refreshLock.lock();
+        } else if (!refreshLock.tryLock()) {
+            // Another thread is refreshing; the previous snapshot is still good enough
+            return s;
+        }
+        try {
+            return refresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Drop the snapshot so the next read reloads all settings.
+     */
+    public void invalidate() {
+        refreshLock.lock();
+        try {
+            snapshot = null;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // Caller holds refreshLock
+    private Snapshot refresh() {
+        Snapshot s = snapshot;
+        long now = System.currentTimeMillis();
+        if (s != null && now - s.checkedAt < TTL_MS) {
+            return s;
+        }
+
+        try (Connection conn = db.getErpConnection()) {
+            long version = readVersion(conn);
+            if (s != null && version >= 0 && version == s.version) {
+                s = s.recheckedAt(now);
+            } else {
+                s = new Snapshot(loadAll(conn), version, now);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            // Keep serving the last known values (or defaults) until the next TTL expiry
+            s = (s != null ? s : EMPTY).recheckedAt(now);
+        }
+        snapshot = s;
+        return s;
+    }
+
+    private static long readVersion(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(VERSION_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                try {
+                    return Long.parseLong(rs.getString("setting_value").trim());
+                } catch (RuntimeException ignored) {
+                    // Treat a corrupt version like a missing one
+                }
+            }
+        }
+        // No version row (database not migrated yet): reload on every refresh
+        return -1;
+    }
+
+    private static Map<String, String> loadAll(Connection conn) throws SQLException {
+        Map<String, String> values = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(LOAD_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                values.put(rs.getString("setting_key"), rs.getString("setting_value"));
+            }
+        }
+        return Collections.unmodifiableMap(values);
+    }
+}
@@ -0,0 +1,24 @@
+package edu.univ.erp.domain;
+
+/**
+ * One section in the course catalog.
+ */
+public record CatalogEntry(int sectionId, String courseCode, String title, int credits,
+                           String instructor, String schedule, String room,
+                           int capacity, int enrolled) {
+
+    public int seatsAvailable() {
+        return capacity - enrolled;
+    }
+
+    /** Seats column text, e.g. "12 / 40" (available / capacity) */
+    public String seatsText() {
+        return seatsAvailable() + " / " + capacity;
+    }
+
+    /** Same section with fresh seat numbers */
+    public CatalogEntry withSeats(int newCapacity, int newEnrolled) {
+        return new CatalogEntry(sectionId, courseCode, title, credits, instructor, schedule, room,
+                newCapacity, newEnrolled);
+    }
+}
@@ -0,0 +1,7 @@
+package edu.univ.erp.domain;
+
+/**
+ * Course code and title, used by admin dropdowns.
+ */
+public record CourseSummary(String code, String title) {
+}
@@ -0,0 +1,26 @@
+package edu.univ.erp.domain;
+
+import java.time.LocalDate;
+
+/**
+ * A section on a student's schedule ("My Registrations").
+ *
+ * @param dropDeadline last day to drop, or null when the section has no deadline
+ */
+public record Enrollment(int sectionId, String courseCode, String title, String instructor,
+                         String schedule, String room, LocalDate dropDeadline) {
+
+    /** e.g. "CS101: Intro to Java" */
+    public String display() {
+        return courseCode + ": " + title;
+    }
+
+    /** e.g. "Mon/Wed 10:00 (C21)" */
+    public String info() {
+        return schedule + " (" + room + ")";
+    }
+
+    public String deadlineText() {
+        return dropDeadline != null ? dropDeadline.toString() : "No deadline";
+    }
+}
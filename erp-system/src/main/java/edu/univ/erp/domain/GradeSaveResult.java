@@ -0,0 +1,17 @@
+package edu.univ.erp.domain;
+
+/**
+ * Outcome of saving one gradebook row.
+ *
+ * @param message reason the row was rejected, or null when it was saved
+ */
+public record GradeSaveResult(int enrollmentId, boolean saved, String message) {
+
+    public static GradeSaveResult ok(int enrollmentId) {
+        return new GradeSaveResult(enrollmentId, true, null);
+    }
+
+    public static GradeSaveResult rejected(int enrollmentId, String message) {
+        return new GradeSaveResult(enrollmentId, false, message);
+    }
+}
@@ -0,0 +1,8 @@
+package edu.univ.erp.domain;
+
+/**
+ * One student in an instructor's gradebook. Missing grade components count as 0.
+ */
+public record GradebookRow(int enrollmentId, String studentName, String rollNo,
+                           double quiz, double midterm, double endsem) {
+}
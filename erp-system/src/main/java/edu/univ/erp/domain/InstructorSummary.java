@@ -0,0 +1,7 @@
+package edu.univ.erp.domain;
+
+/**
+ * Instructor id and name, used by admin dropdowns.
+ */
+public record InstructorSummary(int userId, String fullName) {
+}
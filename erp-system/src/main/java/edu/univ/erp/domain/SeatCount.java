@@ -0,0 +1,7 @@
+package edu.univ.erp.domain;
+
+/**
+ * Current seat numbers of one section, as returned by StudentService.getSeatChanges.
+ */
+public record SeatCount(int sectionId, int capacity, int enrolled) {
+}
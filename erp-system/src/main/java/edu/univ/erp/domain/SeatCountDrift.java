@@ -0,0 +1,8 @@
+package edu.univ.erp.domain;
+
+/**
+ * A section whose stored enrolled_count disagreed with its enrollments,
+ * as found (and repaired) by AdminService.reconcileEnrollmentCounts.
+ */
+public record SeatCountDrift(int sectionId, String courseCode, int stored, int actual) {
+}
@@ -0,0 +1,12 @@
+package edu.univ.erp.domain;
+
+/**
+ * A section taught by the current instructor (gradebook section selector).
+ */
+public record TeachingSection(int sectionId, String courseCode, String schedule) {
+
+    /** e.g. "CS101 (Mon/Wed 10:00)" */
+    public String display() {
+        return courseCode + " (" + schedule + ")";
+    }
+}
@@ -0,0 +1,9 @@
+package edu.univ.erp.domain;
+
+/**
+ * One course on a student's transcript (one enrollment; a student can take the
+ * same course more than once). Missing grade components count as 0.
+ */
+public record TranscriptRow(int studentId, int enrollmentId, String courseCode, String title,
+                            double quiz, double midterm, double endsem, double finalGrade) {
+}
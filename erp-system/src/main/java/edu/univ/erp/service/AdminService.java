@@ -1,6 +1,13 @@
 package edu.univ.erp.service;
 
+import edu.univ.erp.data.DataSourceProvider;
 import edu.univ.erp.data.DatabaseFactory;
+import edu.univ.erp.data.PoolMetrics;
+import edu.univ.erp.data.QueryStats;
+import edu.univ.erp.data.SettingsRegistry;
+import edu.univ.erp.domain.CourseSummary;
+import edu.univ.erp.domain.InstructorSummary;
+import edu.univ.erp.domain.SeatCountDrift;
 import edu.univ.erp.domain.UserRole;
 import org.mindrot.jbcrypt.BCrypt;
 
@@ -13,12 +20,20 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class AdminService {
 
+    private final DataSourceProvider db;
+
+    public AdminService() {
+        this(DatabaseFactory.provider());
+    }
+
+    public AdminService(DataSourceProvider db) {
+        this.db = db;
+    }
+
     public void registerUser(String username, String rawPassword, UserRole role,
                              String fullName, String extraInfo) throws Exception {
         Connection authConn = null;
@@ -27,8 +42,8 @@ public class AdminService {
         ResultSet generatedKeys = null;
 
         try {
-            authConn = DatabaseFactory.getAuthConnection();
-            erpConn = DatabaseFactory.getErpConnection();
+            authConn = db.getAuthConnection();
+            erpConn = db.getErpConnection();
 
             String authSql = "INSERT INTO users_auth (username, role, password_hash) VALUES (?, ?, ?)";
             authStmt = authConn.prepareStatement(authSql, Statement.RETURN_GENERATED_KEYS);
@@ -98,55 +113,72 @@ public class AdminService {
     }
 
     public void createCourse(String code, String title, int credits) throws Exception {
-        try (Connection conn = DatabaseFactory.getErpConnection();
+        try (Connection conn = db.getErpConnection();
              PreparedStatement stmt = conn.prepareStatement(
                      "INSERT INTO courses (course_code, title, credits) VALUES (?, ?, ?)")) {
             stmt.setString(1, code);
             stmt.setString(2, title);
             stmt.setInt(3, credits);
             stmt.executeUpdate();
+            db.noteWrite();
+            CatalogCache.of(db).invalidate();
         } catch (SQLException e) {
             throw new Exception("Unable to complete operation. Please try again. " + e.getMessage(), e);
         }
     }
 
     public void setMaintenanceMode(boolean enable) throws Exception {
-        try (Connection conn = DatabaseFactory.getErpConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                     "UPDATE settings SET setting_value = ? WHERE setting_key = 'maintenance_on'")) {
-            stmt.setString(1, String.valueOf(enable));
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new Exception("Unable to complete operation. Please try again. " + e.getMessage(), e);
-        }
+        updateSetting(SettingsRegistry.MAINTENANCE_ON, String.valueOf(enable));
     }
 
-    public boolean isMaintenanceMode() throws Exception {
-        try (Connection conn = DatabaseFactory.getErpConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                     "SELECT setting_value FROM settings WHERE setting_key = 'maintenance_on'")) {
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Boolean.parseBoolean(rs.getString("setting_value"));
-                }
-                return false;
+    public boolean isMaintenanceMode() {
+        return SettingsRegistry.of(db).value(SettingsRegistry.MAINTENANCE_ON);
+    }
+
+    /**
+     * Write one setting and bump settings_version in the same transaction, so
+     * every client's SettingsRegistry reloads it on its next version check.
+     */
+    public void updateSetting(SettingsRegistry.Setting<?> setting, String value) throws Exception {
+        // The value is bound twice rather than read back with the deprecated VALUES();
+        // the row-alias form is not understood by H2
+        String upsertSql = "INSERT INTO settings (setting_key, setting_value) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE setting_value = ?";
+        String bumpSql = "UPDATE settings SET setting_value = CAST(setting_value AS SIGNED) + 1 " +
+                "WHERE setting_key = 'settings_version'";
+
+        try (Connection conn = db.getErpConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement upsert = conn.prepareStatement(upsertSql);
+                 PreparedStatement bump = conn.prepareStatement(bumpSql)) {
+                upsert.setString(1, setting.key());
+                upsert.setString(2, value);
+                upsert.setString(3, value);
+                upsert.executeUpdate();
+                bump.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
             }
         } catch (SQLException e) {
             throw new Exception("Unable to complete operation. Please try again. " + e.getMessage(), e);
         }
+        // Visible in this process right away
+        SettingsRegistry.of(db).invalidate();
     }
 
     // 1. Helper to fetch all courses for the dropdown
-    public List<Map<String, String>> getAllCourses() throws Exception {
-        List<Map<String, String>> list = new ArrayList<>();
-        try (Connection conn = DatabaseFactory.getErpConnection();
+    public List<CourseSummary> getAllCourses() throws Exception {
+        List<CourseSummary> list = new ArrayList<>();
+        try (Connection conn = db.getErpReadConnection();
              PreparedStatement stmt = conn.prepareStatement("SELECT course_code, title FROM courses")) {
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, String> map = new HashMap<>();
-                    map.put("code", rs.getString("course_code"));
-                    map.put("title", rs.getString("title"));
-                    list.add(map);
+                    list.add(new CourseSummary(rs.getString("course_code"), rs.getString("title")));
                 }
             }
         } catch (SQLException e) {
@@ -156,16 +188,13 @@ public class AdminService {
     }
 
     // 2. Helper to fetch all instructors for the dropdown
-    public List<Map<String, String>> getAllInstructors() throws Exception {
-        List<Map<String, String>> list = new ArrayList<>();
-        try (Connection conn = DatabaseFactory.getErpConnection();
+    public List<InstructorSummary> getAllInstructors() throws Exception {
+        List<InstructorSummary> list = new ArrayList<>();
+        try (Connection conn = db.getErpReadConnection();
              PreparedStatement stmt = conn.prepareStatement("SELECT user_id, full_name FROM instructors")) {
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, String> map = new HashMap<>();
-                    map.put("id", String.valueOf(rs.getInt("user_id")));
-                    map.put("name", rs.getString("full_name"));
-                    list.add(map);
+                    list.add(new InstructorSummary(rs.getInt("user_id"), rs.getString("full_name")));
                 }
             }
         } catch (SQLException e) {
@@ -177,7 +206,7 @@ public class AdminService {
     // 3. The main method to create a section
     public void createSection(String courseCode, int instructorId, String dayTime, String room, int capacity, java.time.LocalDate dropDeadline) throws Exception {
         String sql = "INSERT INTO sections (course_code, instructor_id, days_times, room, capacity, drop_deadline) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseFactory.getErpConnection();
+        try (Connection conn = db.getErpConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, courseCode);
             stmt.setInt(2, instructorId);
@@ -186,16 +215,148 @@ public class AdminService {
             stmt.setInt(5, capacity);
             stmt.setDate(6, java.sql.Date.valueOf(dropDeadline));
             stmt.executeUpdate();
+            db.noteWrite();
+            CatalogCache.of(db).invalidate();
         } catch (SQLException e) {
             throw new Exception("Unable to complete operation. Please try again. " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Reconciliation job for the denormalized sections.enrolled_count column.
+     * Finds sections whose stored counter disagrees with the enrollments table and
+     * recomputes them. Each candidate is re-checked and repaired in its own
+     * transaction holding the section row lock (SELECT ... FOR UPDATE). Register
+     * and drop take the same lock before changing the counter, so the recount
+     * cannot race them; a drift that was only an in-flight registration is
+     * skipped. Safe to run while students are registering.
+     *
+     * @return one entry per repaired section, with the values seen under the lock
+     */
+    public List<SeatCountDrift> reconcileEnrollmentCounts() throws Exception {
+        String driftSql = """
+            SELECT s.section_id
+            FROM sections s
+            LEFT JOIN enrollments e ON e.section_id = s.section_id
+            GROUP BY s.section_id, s.enrolled_count
+            HAVING s.enrolled_count <> COUNT(e.enrollment_id)
+            """;
+        String lockSql = "SELECT course_code, enrolled_count FROM sections WHERE section_id = ? FOR UPDATE";
+        String countSql = "SELECT COUNT(*) FROM enrollments WHERE section_id = ?";
+        String repairSql = "UPDATE sections SET enrolled_count = ?, seats_changed_at = CURRENT_TIMESTAMP(3) WHERE section_id = ?";
+
+        List<SeatCountDrift> repaired = new ArrayList<>();
+        try (Connection conn = db.getErpConnection()) {
+            // Unlocked scan: only picks the candidates
+            List<Integer> candidates = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(driftSql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    candidates.add(rs.getInt("section_id"));
+                }
+            }
+            if (candidates.isEmpty()) {
+                return repaired;
+            }
+
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement lock = conn.prepareStatement(lockSql);
+                 PreparedStatement count = conn.prepareStatement(countSql);
+                 PreparedStatement repair = conn.prepareStatement(repairSql)) {
+                for (int sectionId : candidates) {
+                    SeatCountDrift drift = recount(lock, count, sectionId);
+                    if (drift != null && drift.stored() != drift.actual()) {
+                        repair.setInt(1, drift.actual());
+                        repair.setInt(2, sectionId);
+                        repair.executeUpdate();
+                        repaired.add(drift);
+                    }
+                    conn.commit(); // Releases this section's lock before the next one
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+            if (!repaired.isEmpty()) {
+                db.noteWrite();
+            }
+        } catch (SQLException e) {
+            throw new Exception("Unable to complete operation. Please try again. " + e.getMessage(), e);
+        }
+        return repaired;
+    }
+
+    // Locks the section row, then counts its enrollments; null if the section is gone
+    private SeatCountDrift recount(PreparedStatement lock, PreparedStatement count, int sectionId) throws SQLException {
+        String courseCode;
+        int stored;
+        lock.setInt(1, sectionId);
+        try (ResultSet rs = lock.executeQuery()) {
+            if (!rs.next()) {
+                return null;
+            }
+            courseCode = rs.getString("course_code");
+            stored = rs.getInt("enrolled_count");
+        }
+        count.setInt(1, sectionId);
+        try (ResultSet rs = count.executeQuery()) {
+            rs.next();
+            return new SeatCountDrift(sectionId, courseCode, stored, rs.getInt(1));
+        }
+    }
+
+    /**
+     * Export every student's transcript into a single CSV (registrar term-end run).
+     * Uses 4 worker threads so the ERP pool keeps headroom for interactive users.
+     * An interrupted export resumes when re-run into the same file.
+     */
+    public TranscriptExporter.Progress exportAllTranscripts(File csvFile,
+                                                            TranscriptExporter.ProgressListener listener) throws Exception {
+        try {
+            return new TranscriptExporter(db).exportAll(csvFile, 4, listener);
+        } catch (SQLException | java.io.IOException e) {
+            throw new Exception("Transcript export failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Connection pool statistics (see PoolMetrics)
+     */
+    public List<PoolMetrics.Snapshot> getPoolStats() {
+        return DatabaseFactory.getPoolStats();
+    }
+
+    /**
+     * Per-statement latency statistics (see QueryStats); empty unless
+     * jdbc.instrumentation is enabled
+     */
+    public List<QueryStats.Entry> getQueryStats() {
+        return QueryStats.statements();
+    }
+
+    /**
+     * Connection hold times per pool as seen by the callers (see QueryStats)
+     */
+    public List<QueryStats.Entry> getConnectionHoldStats() {
+        return QueryStats.connectionHolds();
+    }
+
+    public boolean isQueryStatsEnabled() {
+        return DatabaseFactory.isInstrumentationEnabled();
+    }
+
+    public void resetQueryStats() {
+        QueryStats.reset();
+    }
+
     public void backupDB(String filePath) throws Exception {
         String dbName = "univ_erp"; 
-        String dbUser = "root";
+        String dbUser = DatabaseFactory.getConfig().getUser();
         
-        String dbPass = System.getProperty("db.password", "Punya@52");
+        String dbPass = DatabaseFactory.getConfig().getPassword();
 
         String mysqldumpCmd = "mysqldump";
 
@@ -236,9 +397,9 @@ public class AdminService {
     }
 
     public void restoreDB(String filePath) throws Exception {
-        String dbUser = "root";
+        String dbUser = DatabaseFactory.getConfig().getUser();
         
-        String dbPass = System.getProperty("db.password", "Punya@52");
+        String dbPass = DatabaseFactory.getConfig().getPassword();
 
         String mysqlCmd = "mysql";
 
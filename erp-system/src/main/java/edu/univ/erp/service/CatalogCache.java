@@ -0,0 +1,206 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.domain.CatalogEntry;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CatalogCache - Read-through cache for the static part of the course catalog
+ *
+ * Design Decisions:
+ * - Static section data (course, title, credits, instructor, time, room) rarely
+ *   changes, so the three-way join is run once and its rows are kept for TTL_MS.
+ *   AdminService.createCourse / createSection call invalidate(), so this client
+ *   sees its own additions at once; other clients see them within TTL_MS
+ * - Seat counts change on every register/drop and are never cached: they are
+ *   re-read from the sections table alone (no joins), for just the rows of a
+ *   page (withSeats) or for all sections when a filter or sort depends on them
+ *   (withAllSeats)
+ * - One cache per DataSourceProvider (of(db)), like SettingsRegistry. The map
+ *   holds providers weakly and a cache keeps no reference to its provider (the
+ *   caller passes it in), so caches of closed embedded databases are collected
+ * - Hit and miss counters cover the static rows, to check the cache is used
+ */
+public final class CatalogCache {
+
+    // How long static section data stays valid without an explicit invalidation
+    private static final long TTL_MS = 5 * 60 * 1000;
+
+    // Upper bound on section ids per IN (...) list
+    private static final int MAX_BATCH = 500;
+
+    private static final String STATIC_SQL = """
+        SELECT s.section_id, c.course_code, c.title, c.credits,
+               i.full_name as instructor, s.days_times, s.room
+        FROM sections s
+        JOIN courses c ON s.course_code = c.course_code
+        JOIN instructors i ON s.instructor_id = i.user_id
+        ORDER BY s.section_id
+        """;
+
+    private static final String SEATS_SQL = "SELECT section_id, capacity, enrolled_count FROM sections";
+
+    // Immutable static rows in section id order (seat numbers 0); replaced wholesale on reload
+    private record Snapshot(List<CatalogEntry> rows, long loadedAt) {}
+
+    private static final Map<DataSourceProvider, CatalogCache> CACHES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private volatile Snapshot snapshot;
+
+    // Bumped by invalidate() so a load that raced with an admin write is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private CatalogCache() {
+    }
+
+    /**
+     * Cache for the catalog behind a provider; one shared instance per provider.
+     */
+    public static CatalogCache of(DataSourceProvider db) {
+        return CACHES.computeIfAbsent(db, ignored -> new CatalogCache());
+    }
+
+    /**
+     * All sections in section id order with their static columns; capacity and
+     * enrolled are 0 (see withSeats / withAllSeats).
+     */
+    List<CatalogEntry> sections(DataSourceProvider db) throws SQLException {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            hits.incrementAndGet();
+            return current.rows();
+        }
+        synchronized (this) {
+            // Another thread may have reloaded while we waited for the lock
+            current = snapshot;
+            if (isFresh(current)) {
+                hits.incrementAndGet();
+                return current.rows();
+            }
+            misses.incrementAndGet();
+            long gen = generation.get();
+            current = new Snapshot(loadStaticRows(db), System.currentTimeMillis());
+            if (gen == generation.get()) {
+                snapshot = current;
+            }
+            return current.rows();
+        }
+    }
+
+    /**
+     * The given rows with current seat numbers, read by primary key. Rows whose
+     * section no longer exists are left out.
+     */
+    List<CatalogEntry> withSeats(DataSourceProvider db, List<CatalogEntry> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        Map<Integer, int[]> seats = new HashMap<>();
+        try (Connection conn = db.getErpReadConnection()) {
+            for (int from = 0; from < rows.size(); from += MAX_BATCH) {
+                List<CatalogEntry> chunk = rows.subList(from, Math.min(from + MAX_BATCH, rows.size()));
+                String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        SEATS_SQL + " WHERE section_id IN (" + placeholders + ")")) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setInt(i + 1, chunk.get(i).sectionId());
+                    }
+                    readSeats(stmt, seats);
+                }
+            }
+        }
+        return merge(rows, seats);
+    }
+
+    /**
+     * Every cached section with current seat numbers, from one scan of the
+     * sections table; for filters and sorts on open seats.
+     */
+    List<CatalogEntry> withAllSeats(DataSourceProvider db) throws SQLException {
+        List<CatalogEntry> rows = sections(db);
+        Map<Integer, int[]> seats = new HashMap<>();
+        try (Connection conn = db.getErpReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(SEATS_SQL)) {
+            readSeats(stmt, seats);
+        }
+        return merge(rows, seats);
+    }
+
+    /**
+     * Drop the cached static rows so the next read reloads them.
+     * Called by AdminService after creating a course or section.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private static boolean isFresh(Snapshot s) {
+        return s != null && System.currentTimeMillis() - s.loadedAt() < TTL_MS;
+    }
+
+    private static List<CatalogEntry> loadStaticRows(DataSourceProvider db) throws SQLException {
+        List<CatalogEntry> rows = new ArrayList<>();
+        try (Connection conn = db.getErpReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(STATIC_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                // Seat numbers are filled in per read
+                rows.add(new CatalogEntry(
+                        rs.getInt("section_id"),
+                        rs.getString("course_code"),
+                        rs.getString("title"),
+                        rs.getInt("credits"),
+                        rs.getString("instructor"),
+                        rs.getString("days_times"),
+                        rs.getString("room"),
+                        0, 0));
+            }
+        }
+        return Collections.unmodifiableList(rows);
+    }
+
+    // section id -> {capacity, enrolled}
+    private static void readSeats(PreparedStatement stmt, Map<Integer, int[]> seats) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                seats.put(rs.getInt("section_id"),
+                        new int[]{rs.getInt("capacity"), rs.getInt("enrolled_count")});
+            }
+        }
+    }
+
+    private static List<CatalogEntry> merge(List<CatalogEntry> rows, Map<Integer, int[]> seats) {
+        List<CatalogEntry> merged = new ArrayList<>(rows.size());
+        for (CatalogEntry cached : rows) {
+            int[] capacityAndEnrolled = seats.get(cached.sectionId());
+            if (capacityAndEnrolled != null) {
+                merged.add(cached.withSeats(capacityAndEnrolled[0], capacityAndEnrolled[1]));
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,18 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.domain.CatalogEntry;
+
+import java.util.List;
+
+/**
+ * One page of catalog rows from StudentService.getCatalogPage.
+ *
+ * @param rows       sections on this page, ordered by section id
+ * @param nextCursor section id to pass to CatalogQuery.after, or -1 on the last page
+ */
+public record CatalogPage(List<CatalogEntry> rows, int nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor >= 0;
+    }
+}
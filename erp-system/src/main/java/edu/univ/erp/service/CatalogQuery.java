@@ -0,0 +1,27 @@
+package edu.univ.erp.service;
+
+/**
+ * Filters and keyset cursor for StudentService.getCatalogPage (filters only
+ * for countCatalog / getCatalogRange). The student catalog table starts from
+ * firstPage and moves the cursor with after() while scrolling in section order.
+ * Null / blank filters are ignored.
+ *
+ * @param codePrefix     course code prefix, e.g. "CS" or "CS1"
+ * @param instructor     substring of the instructor's name
+ * @param credits        exact credit value, or null for any
+ * @param freeSeatsOnly  only sections with at least one open seat
+ * @param afterSectionId keyset cursor: return sections with a larger id (0 = first page)
+ */
+public record CatalogQuery(String codePrefix, String instructor, Integer credits,
+                           boolean freeSeatsOnly, int afterSectionId) {
+
+    public static CatalogQuery firstPage(String codePrefix, String instructor,
+                                         Integer credits, boolean freeSeatsOnly) {
+        return new CatalogQuery(codePrefix, instructor, credits, freeSeatsOnly, 0);
+    }
+
+    /** Same filters, positioned after the given cursor */
+    public CatalogQuery after(int sectionId) {
+        return new CatalogQuery(codePrefix, instructor, credits, freeSeatsOnly, sectionId);
+    }
+}
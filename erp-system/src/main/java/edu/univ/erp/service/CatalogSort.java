@@ -0,0 +1,32 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.domain.CatalogEntry;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Sort orders for StudentService.getCatalogRange.
+ * Ties are broken by section id so offsets stay stable between pages.
+ * Text compares case-insensitively, like MySQL's default collation.
+ */
+public enum CatalogSort {
+    SECTION_ID(Comparator.comparingInt(CatalogEntry::sectionId)),
+    CODE(text(CatalogEntry::courseCode)),
+    TITLE(text(CatalogEntry::title)),
+    CREDITS(Comparator.comparingInt(CatalogEntry::credits)),
+    INSTRUCTOR(text(CatalogEntry::instructor)),
+    SCHEDULE(text(CatalogEntry::schedule)),
+    SEATS_AVAILABLE(Comparator.comparingInt(CatalogEntry::seatsAvailable));
+
+    final Comparator<CatalogEntry> order;
+
+    CatalogSort(Comparator<CatalogEntry> order) {
+        this.order = order;
+    }
+
+    // Nulls first, as MySQL sorts them ascending
+    private static Comparator<CatalogEntry> text(Function<CatalogEntry, String> column) {
+        return Comparator.comparing(column, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+    }
+}
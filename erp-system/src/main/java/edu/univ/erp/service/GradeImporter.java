@@ -0,0 +1,272 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.data.DatabaseFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * GradeImporter - Streams a grade CSV into the grades table
+ *
+ * Pipeline:
+ * - Parse: records are read one at a time with a quote-aware parser, so quoted
+ *   fields may contain commas, escaped quotes ("") and line breaks
+ * - Validate: the enrollment id must belong to one of the instructor's sections
+ *   (loaded once into a set) and scores must be within the component limits
+ * - Write: valid rows are upserted in chunks of CHUNK_SIZE, one batch and one
+ *   transaction per chunk, so a failure only rolls back the current chunk
+ *
+ * Expected format: EnrollmentID,Quiz,Midterm,EndSem (first line is a header)
+ */
+public class GradeImporter {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    // Keep at most this many row errors in the report; the total is still counted
+    private static final int MAX_REPORTED_ERRORS = 500;
+
+    private static final String INSTRUCTOR_ENROLLMENTS_SQL = """
+        SELECT e.enrollment_id
+        FROM enrollments e
+        JOIN sections s ON e.section_id = s.section_id
+        WHERE s.instructor_id = ?
+        """;
+
+    private final DataSourceProvider db;
+
+    public GradeImporter() {
+        this(DatabaseFactory.provider());
+    }
+
+    public GradeImporter(DataSourceProvider db) {
+        this.db = db;
+    }
+
+    /** A rejected CSV record; line is the 1-based line on which the record starts */
+    public record RowError(long line, String message) {}
+
+    /** Outcome of an import */
+    public record Report(long imported, long rejected, List<RowError> errors, long elapsedMillis) {
+
+        public double rowsPerSecond() {
+            return imported / Math.max(elapsedMillis / 1000.0, 0.001);
+        }
+    }
+
+    private record GradeRow(int enrollmentId, double quiz, double midterm, double endsem) {}
+
+    /**
+     * Import grades for the given instructor's sections.
+     */
+    public Report importFile(File file, int instructorId) throws Exception {
+        long start = System.currentTimeMillis();
+        Set<Integer> allowed = loadInstructorEnrollments(instructorId);
+
+        long imported = 0;
+        long rejected = 0;
+        List<RowError> errors = new ArrayList<>();
+        List<GradeRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(
+                     new FileInputStream(file), StandardCharsets.UTF_8)));
+             Connection conn = db.getErpConnection();
+             PreparedStatement stmt = conn.prepareStatement(InstructorService.UPSERT_GRADE_SQL)) {
+
+            // Skip the header row
+            reader.next();
+
+            List<String> fields;
+            while ((fields = reader.next()) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue; // empty line
+                }
+                String problem;
+                GradeRow row = null;
+                try {
+                    row = parse(fields);
+                    problem = validate(row, allowed);
+                } catch (NumberFormatException e) {
+                    problem = "Invalid number: " + e.getMessage();
+                } catch (IllegalArgumentException e) {
+                    problem = e.getMessage();
+                }
+
+                if (problem != null) {
+                    rejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add(new RowError(reader.recordLine(), problem));
+                    }
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    imported += writeChunk(conn, stmt, chunk);
+                }
+            }
+            imported += writeChunk(conn, stmt, chunk);
+        }
+        return new Report(imported, rejected, errors, System.currentTimeMillis() - start);
+    }
+
+    private GradeRow parse(List<String> fields) {
+        if (fields.size() < 4) {
+            throw new IllegalArgumentException("Expected 4 fields, found " + fields.size());
+        }
+        return new GradeRow(
+                Integer.parseInt(fields.get(0).trim()),
+                Double.parseDouble(fields.get(1).trim()),
+                Double.parseDouble(fields.get(2).trim()),
+                Double.parseDouble(fields.get(3).trim()));
+    }
+
+    private String validate(GradeRow row, Set<Integer> allowed) {
+        if (!allowed.contains(row.enrollmentId())) {
+            return "Enrollment " + row.enrollmentId() + " is not in one of your sections.";
+        }
+        return InstructorService.validateScores(row.quiz(), row.midterm(), row.endsem());
+    }
+
+    private Set<Integer> loadInstructorEnrollments(int instructorId) throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        try (Connection conn = db.getErpConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSTRUCTOR_ENROLLMENTS_SQL)) {
+            stmt.setInt(1, instructorId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt("enrollment_id"));
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Upsert one chunk in its own transaction; returns the number of rows written
+    private int writeChunk(Connection conn, PreparedStatement stmt, List<GradeRow> chunk) throws SQLException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            for (GradeRow row : chunk) {
+                InstructorService.addGradeUpserts(stmt, row.enrollmentId(), row.quiz(), row.midterm(), row.endsem());
+            }
+            stmt.executeBatch();
+            conn.commit();
+            db.noteWrite();
+        } catch (SQLException e) {
+            stmt.clearBatch();
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        int written = chunk.size();
+        chunk.clear();
+        return written;
+    }
+
+    /**
+     * Minimal RFC 4180 reader: comma separated, fields optionally wrapped in
+     * double quotes, "" inside quotes is a literal quote, CRLF or LF line ends.
+     */
+    static final class CsvReader implements AutoCloseable {
+
+        private final Reader in;
+        private final StringBuilder field = new StringBuilder();
+        private long line = 1;
+        private long recordLine = 1;
+        private int pushback = -2;
+
+        CsvReader(Reader in) {
+            this.in = in;
+        }
+
+        /** Line on which the record last returned by next() started */
+        long recordLine() {
+            return recordLine;
+        }
+
+        /** Next record, or null at end of input */
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            List<String> fields = new ArrayList<>(4);
+            field.setLength(0);
+            boolean quoted = false;
+
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                    }
+                    if (c == '"') {
+                        int peek = read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = peek;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') line++;
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int peek = read();
+                        if (peek != '\n') unread(peek);
+                    }
+                    if (c != -1) line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushback != -2) {
+                int c = pushback;
+                pushback = -2;
+                return c;
+            }
+            return in.read();
+        }
+
+        private void unread(int c) {
+            pushback = c;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -3,38 +3,51 @@ package edu.univ.erp.service;
 import edu.univ.erp.domain.User;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class NotificationService {
-    
-    // In-memory storage: UserId -> List of Messages
-    private static final Map<Integer, List<String>> userNotifications = new HashMap<>();
+
+    // Oldest messages are dropped beyond this, so a long session cannot grow without bound
+    private static final int MAX_PER_USER = 100;
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    // In-memory storage: UserId -> Messages, newest first. Registrations call in
+    // from worker threads, so the map is concurrent and each deque is guarded by itself.
+    private static final Map<Integer, Deque<String>> userNotifications = new ConcurrentHashMap<>();
 
     public static void addNotification(User user, String message) {
         if (user == null) return;
-        
-        int userId = user.getUserId();
-        userNotifications.putIfAbsent(userId, new ArrayList<>());
-        
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-        String fullMessage = "[" + timestamp + "] " + message;
-        
-        userNotifications.get(userId).add(0, fullMessage); // Add to top
+
+        String fullMessage = "[" + LocalDateTime.now().format(TIMESTAMP) + "] " + message;
+
+        Deque<String> messages = userNotifications.computeIfAbsent(user.getUserId(), id -> new ArrayDeque<>());
+        synchronized (messages) {
+            messages.addFirst(fullMessage); // Add to top
+            if (messages.size() > MAX_PER_USER) {
+                messages.removeLast();
+            }
+        }
     }
 
     public static List<String> getNotifications(User user) {
         if (user == null) return Collections.emptyList();
-        return userNotifications.getOrDefault(user.getUserId(), Collections.emptyList());
+        Deque<String> messages = userNotifications.get(user.getUserId());
+        if (messages == null) return Collections.emptyList();
+        synchronized (messages) {
+            return new ArrayList<>(messages);
+        }
     }
-    
+
     public static void clearNotifications(User user) {
         if (user != null) {
             userNotifications.remove(user.getUserId());
         }
     }
 }
-
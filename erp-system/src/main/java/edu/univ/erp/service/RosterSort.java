@@ -0,0 +1,22 @@
+package edu.univ.erp.service;
+
+/**
+ * Server-side sort orders for InstructorService.getClassListRange.
+ * Ties are broken by enrollment id so offsets stay stable between pages.
+ */
+public enum RosterSort {
+    ENROLLMENT_ID("enrollment_id"),
+    NAME("full_name"),
+    ROLL_NO("roll_no"),
+    QUIZ("quiz"),
+    MIDTERM("midterm"),
+    ENDSEM("endsem"),
+    // Weighted with the current grade weights, bound as parameters
+    FINAL_GRADE("quiz * ? + midterm * ? + endsem * ?");
+
+    final String orderBy;
+
+    RosterSort(String orderBy) {
+        this.orderBy = orderBy;
+    }
+}
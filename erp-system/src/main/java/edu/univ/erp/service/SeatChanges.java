@@ -0,0 +1,15 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.domain.SeatCount;
+
+import java.util.List;
+
+/**
+ * Sections whose seat counts changed, from StudentService.getSeatChanges.
+ *
+ * @param seats  current seat numbers of the changed sections; may repeat sections
+ *               already delivered by the previous call
+ * @param cursor database time of this read, to pass to the next call
+ */
+public record SeatChanges(List<SeatCount> seats, long cursor) {
+}
@@ -1,69 +1,207 @@
 package edu.univ.erp.service;
 
 import edu.univ.erp.access.AccessControl;
+import edu.univ.erp.data.DataSourceProvider;
 import edu.univ.erp.data.DatabaseFactory;
+import edu.univ.erp.data.SettingsRegistry;
+import edu.univ.erp.domain.CatalogEntry;
+import edu.univ.erp.domain.Enrollment;
+import edu.univ.erp.domain.SeatCount;
+import edu.univ.erp.domain.TranscriptRow;
 import edu.univ.erp.domain.User;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 public class StudentService {
 
+    // Fixed catalog page size; bounds the work done for the first screen of results
+    public static final int CATALOG_PAGE_SIZE = 50;
+
+    // How far each seat poll looks back before its cursor; covers transactions
+    // that stamped a seat change but had not committed at the previous poll.
+    // The stamp is the UPDATE's time, not the commit's: a transaction that
+    // commits more than this after its seat UPDATE is missed (see getSeatChanges)
+    private static final long SEAT_POLL_OVERLAP_MS = 2000;
+
+    private final DataSourceProvider db;
+    private final TranscriptService transcriptService;
+
+    public StudentService() {
+        this(DatabaseFactory.provider());
+    }
+
+    public StudentService(DataSourceProvider db) {
+        this.db = db;
+        this.transcriptService = new TranscriptService(db);
+    }
+
     private void notify(User user, String msg) {
         NotificationService.addNotification(user, msg);
     }
 
-    public List<Map<String, String>> getCourseCatalog() throws Exception {
-        List<Map<String, String>> catalog = new ArrayList<>();
-        String sql = """
-            SELECT s.section_id, c.course_code, c.title, c.credits,
-                   i.full_name as instructor, s.days_times, s.room, s.capacity,
-                   (SELECT COUNT(*) FROM enrollments e WHERE e.section_id = s.section_id) as enrolled_count
-            FROM sections s
-            JOIN courses c ON s.course_code = c.course_code
-            JOIN instructors i ON s.instructor_id = i.user_id
-            """;
+    /**
+     * Fetch one page of the catalog in section order, after the query's cursor.
+     * Sections and their static columns come from the CatalogCache, so no page
+     * runs the catalog join; only the seat counts of the returned rows are read
+     * from the database. Filtering on open seats reads every section's count
+     * instead (one scan of the sections table).
+     */
+    public CatalogPage getCatalogPage(CatalogQuery query) throws Exception {
+        boolean allSeats = query.freeSeatsOnly();
+        try {
+            List<CatalogEntry> matching = filteredCatalog(query, allSeats);
+            int start = 0;
+            while (start < matching.size() && matching.get(start).sectionId() <= query.afterSectionId()) {
+                start++;
+            }
+            // One extra row tells us whether another page exists
+            List<CatalogEntry> page = matching.subList(start, Math.min(start + CATALOG_PAGE_SIZE + 1, matching.size()));
+            int nextCursor = -1;
+            if (page.size() > CATALOG_PAGE_SIZE) {
+                page = page.subList(0, CATALOG_PAGE_SIZE);
+                nextCursor = page.get(CATALOG_PAGE_SIZE - 1).sectionId();
+            }
+            return new CatalogPage(withCurrentSeats(new ArrayList<>(page), allSeats), nextCursor);
+        } catch (SQLException e) {
+            throw new Exception("Unable to load course catalog. Please try again.");
+        }
+    }
 
-        try (Connection conn = DatabaseFactory.getErpConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+    /**
+     * Number of sections matching the query's filters (its cursor is ignored).
+     */
+    public int countCatalog(CatalogQuery query) throws Exception {
+        try {
+            return filteredCatalog(query, query.freeSeatsOnly()).size();
+        } catch (SQLException e) {
+            throw new Exception("Unable to load course catalog. Please try again.");
+        }
+    }
 
-            while (rs.next()) {
-                Map<String, String> row = new HashMap<>();
-                row.put("id", String.valueOf(rs.getInt("section_id")));
-                row.put("code", rs.getString("course_code"));
-                row.put("title", rs.getString("title"));
-                row.put("credits", rs.getString("credits"));
-                row.put("instructor", rs.getString("instructor"));
-                row.put("time", rs.getString("days_times"));
+    /**
+     * Fetch rows [offset, offset + limit) of the filtered catalog in the given
+     * order, for tables that load the part the user scrolls to. Unlike
+     * getCatalogPage this allows any sort column and random access. The cached
+     * sections are filtered and sorted in memory; seat counts are read fresh,
+     * for the returned rows only unless the filter or sort depends on them.
+     * Sequential scrolling in section order uses getCatalogPage instead.
+     */
+    public List<CatalogEntry> getCatalogRange(CatalogQuery query, CatalogSort sort, boolean ascending,
+                                              int offset, int limit) throws Exception {
+        boolean allSeats = query.freeSeatsOnly() || sort == CatalogSort.SEATS_AVAILABLE;
+        try {
+            List<CatalogEntry> matching = filteredCatalog(query, allSeats);
+            Comparator<CatalogEntry> order = sort.order.thenComparingInt(CatalogEntry::sectionId);
+            matching.sort(ascending ? order : order.reversed());
 
-                int cap = rs.getInt("capacity");
-                int filled = rs.getInt("enrolled_count");
-                row.put("seats", (cap - filled) + " / " + cap);
+            int from = Math.min(offset, matching.size());
+            int to = Math.min(from + limit, matching.size());
+            return withCurrentSeats(new ArrayList<>(matching.subList(from, to)), allSeats);
+        } catch (SQLException e) {
+            throw new Exception("Unable to load course catalog. Please try again.");
+        }
+    }
 
-                catalog.add(row);
+    /**
+     * Seat counts of the sections changed since a previous call, for keeping an
+     * open catalog current. Register and drop stamp sections.seats_changed_at,
+     * so this is one indexed range scan returning only the changed sections,
+     * with no catalog join. The cursor is the database clock, so a client with a
+     * wrong clock still sees every change. Reads go to the primary: a lagging
+     * replica would let changes slip behind the cursor.
+     *
+     * Limit: seats_changed_at holds the time of the seat UPDATE, while other
+     * clients only see the change once it commits. Each poll therefore looks back
+     * SEAT_POLL_OVERLAP_MS before its cursor. register and drop commit right
+     * after that UPDATE (one INSERT or DELETE later), so a change is only missed
+     * if its transaction stalls for longer than the overlap between UPDATE and
+     * commit, e.g. on a lock wait. The missed count stays stale until the
+     * catalog is reloaded (a new search, or the student's own register or drop).
+     *
+     * @param cursor cursor of the previous result, or 0 to start from now
+     */
+    public SeatChanges getSeatChanges(long cursor) throws Exception {
+        String changesSql = "SELECT section_id, capacity, enrolled_count FROM sections WHERE seats_changed_at >= ?";
+
+        try (Connection conn = db.getErpConnection()) {
+            Timestamp now;
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT CURRENT_TIMESTAMP(3)");
+                 ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                now = rs.getTimestamp(1);
             }
+
+            long from = (cursor > 0 ? cursor : now.getTime()) - SEAT_POLL_OVERLAP_MS;
+            List<SeatCount> seats = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(changesSql)) {
+                stmt.setTimestamp(1, new Timestamp(from));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        seats.add(new SeatCount(rs.getInt("section_id"), rs.getInt("capacity"), rs.getInt("enrolled_count")));
+                    }
+                }
+            }
+            return new SeatChanges(seats, now.getTime());
         } catch (SQLException e) {
-            throw new Exception("Unable to load course catalog. Please try again.");
+            throw new Exception("Unable to refresh seat availability. Please try again.");
         }
-        return catalog;
+    }
+
+    // Cached sections passing the query's filters, in section order. With allSeats
+    // the rows carry current seat counts, otherwise 0 (see withCurrentSeats).
+    private List<CatalogEntry> filteredCatalog(CatalogQuery query, boolean allSeats) throws SQLException {
+        CatalogCache cache = CatalogCache.of(db);
+        List<CatalogEntry> sections = allSeats ? cache.withAllSeats(db) : cache.sections(db);
+        List<CatalogEntry> matching = new ArrayList<>();
+        for (CatalogEntry entry : sections) {
+            if (matches(query, entry)) {
+                matching.add(entry);
+            }
+        }
+        return matching;
+    }
+
+    private List<CatalogEntry> withCurrentSeats(List<CatalogEntry> rows, boolean haveSeats) throws SQLException {
+        return haveSeats ? rows : CatalogCache.of(db).withSeats(db, rows);
+    }
+
+    // The query's filters; text matches ignore case, like LIKE under MySQL's default collation
+    private static boolean matches(CatalogQuery query, CatalogEntry entry) {
+        if (query.codePrefix() != null && !query.codePrefix().isBlank()) {
+            String prefix = query.codePrefix().trim();
+            if (!entry.courseCode().regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return false;
+            }
+        }
+        if (query.instructor() != null && !query.instructor().isBlank()) {
+            String name = query.instructor().trim().toLowerCase(Locale.ROOT);
+            if (!entry.instructor().toLowerCase(Locale.ROOT).contains(name)) {
+                return false;
+            }
+        }
+        if (query.credits() != null && entry.credits() != query.credits()) {
+            return false;
+        }
+        return !query.freeSeatsOnly() || entry.seatsAvailable() > 0;
     }
 
     public void register(User student, int sectionId) throws Exception {
-        if (AccessControl.isMaintenanceModeOn()) {
+        if (AccessControl.isMaintenanceModeOn(db)) {
             throw new Exception("System is under maintenance. Changes are currently disabled.");
         }
 
-        try (Connection conn = DatabaseFactory.getErpConnection()) {
-            ensureNotDuplicate(conn, student.getUserId(), sectionId);
-            ensureCapacity(conn, sectionId);
-            insertEnrollment(conn, student.getUserId(), sectionId);
+        try (Connection conn = db.getErpConnection()) {
+            reserveSeat(conn, student.getUserId(), sectionId);
 
             // Get course name for notification
             String courseName = getCourseName(conn, sectionId);
@@ -72,6 +210,73 @@ public class StudentService {
             throw new Exception("Unable to complete registration. Please try again.");
         }
     }
+
+    /**
+     * Reserve a seat inside a single transaction.
+     * The seat is claimed with one conditional UPDATE on the maintained
+     * sections.enrolled_count counter: it only succeeds while seats remain, and the
+     * row lock it takes serializes concurrent registrations for the same section.
+     * Duplicate registrations are rejected by the UNIQUE(student_id, section_id) key,
+     * and the rollback hands the claimed seat back.
+     */
+    private void reserveSeat(Connection conn, int studentId, int sectionId) throws Exception {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            claimSeat(conn, sectionId);
+            insertEnrollment(conn, studentId, sectionId);
+            conn.commit();
+            // The student's schedule and seat counts are re-read right after this
+            db.noteWrite();
+        } catch (SQLException e) {
+            conn.rollback();
+            if (isDuplicateKey(e)) {
+                throw new Exception("You are already registered for this section.");
+            }
+            throw e;
+        } catch (Exception e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    // Unique-key violation only (MySQL error 1062, SQLState 23505 on H2); other
+    // constraint failures, e.g. a missing student row, are not duplicates
+    private static boolean isDuplicateKey(SQLException e) {
+        return (e.getErrorCode() == 1062 && "23000".equals(e.getSQLState())) || "23505".equals(e.getSQLState());
+    }
+
+    private void claimSeat(Connection conn, int sectionId) throws SQLException, Exception {
+        String claim = "UPDATE sections SET enrolled_count = enrolled_count + 1, seats_changed_at = CURRENT_TIMESTAMP(3) "
+                + "WHERE section_id = ? AND enrolled_count < capacity";
+        try (PreparedStatement stmt = conn.prepareStatement(claim)) {
+            stmt.setInt(1, sectionId);
+            if (stmt.executeUpdate() == 1) {
+                return;
+            }
+        }
+        // Nothing updated: either the section is full or it does not exist
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM sections WHERE section_id = ?")) {
+            stmt.setInt(1, sectionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new Exception("Section not found.");
+                }
+            }
+        }
+        throw new Exception("Section is full.");
+    }
+
+    private void releaseSeat(Connection conn, int sectionId) throws SQLException {
+        String release = "UPDATE sections SET enrolled_count = enrolled_count - 1, seats_changed_at = CURRENT_TIMESTAMP(3) "
+                + "WHERE section_id = ? AND enrolled_count > 0";
+        try (PreparedStatement stmt = conn.prepareStatement(release)) {
+            stmt.setInt(1, sectionId);
+            stmt.executeUpdate();
+        }
+    }
     
     private String getCourseName(Connection conn, int sectionId) throws SQLException {
         String sql = "SELECT c.course_code, c.title FROM sections s JOIN courses c ON s.course_code = c.course_code WHERE s.section_id = ?";
@@ -103,11 +308,11 @@ public class StudentService {
     }
 
     public void drop(User student, int sectionId) throws Exception {
-        if (AccessControl.isMaintenanceModeOn()) {
+        if (AccessControl.isMaintenanceModeOn(db)) {
             throw new Exception("System is under maintenance.");
         }
 
-        try (Connection conn = DatabaseFactory.getErpConnection()) {
+        try (Connection conn = db.getErpConnection()) {
             // Check section-specific drop deadline
             java.time.LocalDate deadline = getSectionDropDeadline(conn, sectionId);
             if (deadline != null && java.time.LocalDate.now().isAfter(deadline)) {
@@ -117,33 +322,20 @@ public class StudentService {
             // Get course name for notification before dropping
             String courseName = getCourseName(conn, sectionId);
             
-            // First, get the enrollment_id
-            int enrollmentId = -1;
-            String findEnrollment = "SELECT enrollment_id FROM enrollments WHERE student_id = ? AND section_id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(findEnrollment)) {
-                stmt.setInt(1, student.getUserId());
-                stmt.setInt(2, sectionId);
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        enrollmentId = rs.getInt("enrollment_id");
-                    } else {
-                        throw new Exception("You are not enrolled in this section.");
-                    }
-                }
-            }
-
-            // Delete any grades associated with this enrollment
-            String deleteGrades = "DELETE FROM grades WHERE enrollment_id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(deleteGrades)) {
-                stmt.setInt(1, enrollmentId);
-                stmt.executeUpdate();
-            }
-
-            // Now delete the enrollment
-            String deleteEnrollment = "DELETE FROM enrollments WHERE enrollment_id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(deleteEnrollment)) {
-                stmt.setInt(1, enrollmentId);
-                stmt.executeUpdate();
+            // Remove grades, enrollment and the claimed seat together so the
+            // enrolled_count counter never drifts from the enrollments table
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                removeEnrollment(conn, student.getUserId(), sectionId);
+                releaseSeat(conn, sectionId);
+                conn.commit();
+                db.noteWrite();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
             }
 
             notify(student, "Dropped course: " + courseName);
@@ -152,8 +344,41 @@ public class StudentService {
         }
     }
 
-    public List<Map<String, String>> getMySections(User student) throws Exception {
-        List<Map<String, String>> list = new ArrayList<>();
+    private void removeEnrollment(Connection conn, int studentId, int sectionId) throws SQLException, Exception {
+        // First, get the enrollment_id
+        int enrollmentId = -1;
+        String findEnrollment = "SELECT enrollment_id FROM enrollments WHERE student_id = ? AND section_id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(findEnrollment)) {
+            stmt.setInt(1, studentId);
+            stmt.setInt(2, sectionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    enrollmentId = rs.getInt("enrollment_id");
+                } else {
+                    throw new Exception("You are not enrolled in this section.");
+                }
+            }
+        }
+
+        // Delete any grades associated with this enrollment
+        String deleteGrades = "DELETE FROM grades WHERE enrollment_id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(deleteGrades)) {
+            stmt.setInt(1, enrollmentId);
+            stmt.executeUpdate();
+        }
+
+        // Now delete the enrollment; zero rows means a concurrent drop already won
+        String deleteEnrollment = "DELETE FROM enrollments WHERE enrollment_id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(deleteEnrollment)) {
+            stmt.setInt(1, enrollmentId);
+            if (stmt.executeUpdate() == 0) {
+                throw new Exception("You are not enrolled in this section.");
+            }
+        }
+    }
+
+    public List<Enrollment> getMySections(User student) throws Exception {
+        List<Enrollment> list = new ArrayList<>();
         String sql = """
             SELECT s.section_id, c.course_code, c.title, i.full_name, s.days_times, s.room, s.drop_deadline
             FROM enrollments e
@@ -163,26 +388,20 @@ public class StudentService {
             WHERE e.student_id = ?
             """;
 
-        try (Connection conn = DatabaseFactory.getErpConnection();
+        try (Connection conn = db.getErpReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, student.getUserId());
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Map<String, String> row = new HashMap<>();
-                    row.put("id", String.valueOf(rs.getInt("section_id")));
-                    row.put("display", rs.getString("course_code") + ": " + rs.getString("title"));
-                    row.put("info", rs.getString("days_times") + " (" + rs.getString("room") + ")");
-                    row.put("instructor", rs.getString("full_name"));
-                    
-                    // Format drop deadline
                     java.sql.Date deadline = rs.getDate("drop_deadline");
-                    if (deadline != null) {
-                        row.put("deadline", deadline.toString());
-                    } else {
-                        row.put("deadline", "No deadline");
-                    }
-                    
-                    list.add(row);
+                    list.add(new Enrollment(
+                            rs.getInt("section_id"),
+                            rs.getString("course_code"),
+                            rs.getString("title"),
+                            rs.getString("full_name"),
+                            rs.getString("days_times"),
+                            rs.getString("room"),
+                            deadline != null ? deadline.toLocalDate() : null));
                 }
             }
         } catch (SQLException e) {
@@ -201,7 +420,7 @@ public class StudentService {
             WHERE e.student_id = ? AND e.section_id = ?
             """;
         
-        try (Connection conn = DatabaseFactory.getErpConnection();
+        try (Connection conn = db.getErpReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, student.getUserId());
             stmt.setInt(2, sectionId);
@@ -216,32 +435,12 @@ public class StudentService {
         return grades;
     }
 
-    private void ensureNotDuplicate(Connection conn, int studentId, int sectionId) throws SQLException, Exception {
-        String checkDup = "SELECT 1 FROM enrollments WHERE student_id = ? AND section_id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(checkDup)) {
-            stmt.setInt(1, studentId);
-            stmt.setInt(2, sectionId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    throw new Exception("You are already registered for this section.");
-                }
-            }
-        }
-    }
-
-    private void ensureCapacity(Connection conn, int sectionId) throws SQLException, Exception {
-        String checkCap = "SELECT capacity, (SELECT COUNT(*) FROM enrollments WHERE section_id = ?) as filled FROM sections WHERE section_id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(checkCap)) {
-            stmt.setInt(1, sectionId);
-            stmt.setInt(2, sectionId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    if (rs.getInt("filled") >= rs.getInt("capacity")) {
-                        throw new Exception("Section is full.");
-                    }
-                }
-            }
-        }
+    /**
+     * Current grade weights, to turn the scores from getGrades into a final grade.
+     * May query the settings table, so call it off the Swing event thread.
+     */
+    public SettingsRegistry.Snapshot getGradeWeights() {
+        return SettingsRegistry.of(db).current();
     }
 
     private void insertEnrollment(Connection conn, int studentId, int sectionId) throws SQLException {
@@ -253,63 +452,12 @@ public class StudentService {
         }
     }
 
-    public List<Map<String, String>> getTranscriptData(User student) throws Exception {
-        List<Map<String, String>> transcript = new ArrayList<>();
-        
-        // Get all sections the student is enrolled in
-        String sql = """
-            SELECT e.enrollment_id, c.course_code, c.title
-            FROM enrollments e
-            JOIN sections s ON e.section_id = s.section_id
-            JOIN courses c ON s.course_code = c.course_code
-            WHERE e.student_id = ?
-            """;
-
-        try (Connection conn = DatabaseFactory.getErpConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, student.getUserId());
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    int enrollId = rs.getInt("enrollment_id");
-                    String code = rs.getString("course_code");
-                    String title = rs.getString("title");
-
-                    // Fetch grades for this specific enrollment to calculate final score
-                    Map<String, Double> grades = getGradesForEnrollment(conn, enrollId);
-                    
-                    double quiz = grades.getOrDefault("Quiz", 0.0);
-                    double mid = grades.getOrDefault("Midterm", 0.0);
-                    double end = grades.getOrDefault("EndSem", 0.0);
-                    double finalGrade = (quiz * 0.2) + (mid * 0.3) + (end * 0.5);
-
-                    Map<String, String> record = new HashMap<>();
-                    record.put("code", code);
-                    record.put("title", title);
-                    record.put("grade", String.format("%.2f", finalGrade));
-                    
-                    transcript.add(record);
-                }
-            }
+    public List<TranscriptRow> getTranscriptData(User student) throws Exception {
+        // One pivoted query for all enrollments and their grade components
+        try {
+            return transcriptService.getTranscript(student.getUserId());
         } catch (SQLException e) {
             throw new Exception("Unable to load transcript data. Please try again.");
         }
-        return transcript;
-    }
-
-    // Helper to get grades reusing an existing connection
-    private Map<String, Double> getGradesForEnrollment(Connection conn, int enrollmentId) throws SQLException {
-        Map<String, Double> grades = new HashMap<>();
-        String sql = "SELECT component_name, score FROM grades WHERE enrollment_id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, enrollmentId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    grades.put(rs.getString("component_name"), rs.getDouble("score"));
-                }
-            }
-        }
-        return grades;
     }
 }
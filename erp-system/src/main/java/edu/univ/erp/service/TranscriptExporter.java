@@ -0,0 +1,252 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.data.DatabaseFactory;
+import edu.univ.erp.domain.TranscriptRow;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * TranscriptExporter - Streams every student's transcript into one CSV file
+ *
+ * Design:
+ * - Students are read in keyset-paged batches of BATCH_SIZE (ordered by user_id)
+ * - Each batch is rendered by TranscriptService's pivoted batch query on a worker
+ *   thread; at most 2 x parallelism batches are in flight, so memory use does not
+ *   depend on the number of students
+ * - Batches are written strictly in order, and after each one the last exported
+ *   student id and the CSV's byte length are saved to "<file>.progress".
+ *   Re-running an export into the same file first truncates the CSV to that
+ *   length, dropping any partial batch a crash left behind, and then resumes
+ *   after that id instead of starting over.
+ */
+public class TranscriptExporter {
+
+    private static final int BATCH_SIZE = 200;
+
+    private static final String HEADER =
+            "Student ID,Roll No,Student Name,Course Code,Course Title,Quiz,Midterm,EndSem,Final Grade";
+
+    private static final String STUDENT_PAGE_SQL =
+            "SELECT user_id, roll_no, full_name FROM students WHERE user_id > ? ORDER BY user_id LIMIT ?";
+
+    /** Snapshot of export progress, reported after every written batch */
+    public record Progress(long students, long rows, double rowsPerSecond, int lastStudentId) {}
+
+    public interface ProgressListener {
+        void onProgress(Progress progress);
+    }
+
+    private record Student(int id, String rollNo, String name) {}
+
+    // Rendered batch: CSV lines plus the id to record as the resume point
+    private record Batch(List<String> lines, int students, int lastStudentId) {}
+
+    // Contents of the .progress file: last exported id and the CSV length at that point
+    private record ResumePoint(int lastStudentId, long csvBytes) {}
+
+    private static final ResumePoint FRESH = new ResumePoint(0, 0);
+
+    private final DataSourceProvider db;
+    private final TranscriptService transcriptService;
+
+    public TranscriptExporter() {
+        this(DatabaseFactory.provider());
+    }
+
+    public TranscriptExporter(DataSourceProvider db) {
+        this.db = db;
+        this.transcriptService = new TranscriptService(db);
+    }
+
+    /**
+     * Export all transcripts to the given CSV file.
+     *
+     * @param csvFile     destination; resumed if a matching .progress file exists
+     * @param parallelism number of worker threads (keep below the ERP pool size)
+     * @param listener    progress callback, invoked on the calling thread; may be null
+     * @return final progress totals for this run
+     */
+    public Progress exportAll(File csvFile, int parallelism, ProgressListener listener) throws Exception {
+        int workers = Math.max(1, parallelism);
+        File progressFile = new File(csvFile.getPath() + ".progress");
+        ResumePoint resume = readResumePoint(csvFile, progressFile);
+        int resumeAfter = resume.lastStudentId();
+        boolean append = resumeAfter > 0;
+        if (append) {
+            // Drop whatever was written after the last checkpoint
+            try (FileChannel channel = FileChannel.open(csvFile.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(resume.csvBytes());
+            }
+        }
+
+        long start = System.nanoTime();
+        long students = 0;
+        long rows = 0;
+        int lastId = resumeAfter;
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try (FileOutputStream file = new FileOutputStream(csvFile, append);
+             Writer out = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8))) {
+            if (!append) {
+                out.write(HEADER);
+                out.write('\n');
+            }
+
+            Deque<Future<Batch>> inFlight = new ArrayDeque<>();
+            int cursor = resumeAfter;
+            while (true) {
+                List<Student> page = loadStudentPage(cursor);
+                if (page.isEmpty()) {
+                    break;
+                }
+                cursor = page.get(page.size() - 1).id();
+                inFlight.addLast(pool.submit(() -> render(page)));
+
+                // Bounded look-ahead: drain the oldest batch once the window is full
+                if (inFlight.size() >= workers * 2) {
+                    Batch batch = await(inFlight.removeFirst());
+                    writeBatch(out, file.getChannel(), batch, progressFile);
+                    students += batch.students();
+                    rows += batch.lines().size();
+                    lastId = batch.lastStudentId();
+                    report(listener, students, rows, start, lastId);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                Batch batch = await(inFlight.removeFirst());
+                writeBatch(out, file.getChannel(), batch, progressFile);
+                students += batch.students();
+                rows += batch.lines().size();
+                lastId = batch.lastStudentId();
+                report(listener, students, rows, start, lastId);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Completed: the next export into this file starts fresh
+        Files.deleteIfExists(progressFile.toPath());
+        return progress(students, rows, start, lastId);
+    }
+
+    private ResumePoint readResumePoint(File csvFile, File progressFile) {
+        if (!csvFile.exists() || !progressFile.exists()) {
+            return FRESH;
+        }
+        try {
+            String[] fields = Files.readString(progressFile.toPath()).trim().split("\\s+");
+            if (fields.length != 2) {
+                return FRESH;
+            }
+            ResumePoint point = new ResumePoint(Integer.parseInt(fields[0]), Long.parseLong(fields[1]));
+            // A CSV shorter than the checkpoint was replaced or cut; it cannot be resumed
+            return point.csvBytes() <= csvFile.length() ? point : FRESH;
+        } catch (IOException | NumberFormatException e) {
+            return FRESH;
+        }
+    }
+
+    private List<Student> loadStudentPage(int afterId) throws SQLException {
+        List<Student> page = new ArrayList<>(BATCH_SIZE);
+        try (Connection conn = db.getErpReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(STUDENT_PAGE_SQL)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, BATCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    page.add(new Student(rs.getInt("user_id"), rs.getString("roll_no"), rs.getString("full_name")));
+                }
+            }
+        }
+        return page;
+    }
+
+    private Batch render(List<Student> page) throws SQLException {
+        List<Integer> ids = new ArrayList<>(page.size());
+        for (Student s : page) {
+            ids.add(s.id());
+        }
+        Map<Integer, List<TranscriptRow>> transcripts = transcriptService.getTranscripts(ids);
+
+        List<String> lines = new ArrayList<>();
+        for (Student s : page) {
+            for (TranscriptRow r : transcripts.get(s.id())) {
+                lines.add(String.join(",",
+                        String.valueOf(s.id()), csv(s.rollNo()), csv(s.name()),
+                        csv(r.courseCode()), csv(r.title()),
+                        String.format("%.2f", r.quiz()), String.format("%.2f", r.midterm()),
+                        String.format("%.2f", r.endsem()), String.format("%.2f", r.finalGrade())));
+            }
+        }
+        return new Batch(lines, page.size(), page.get(page.size() - 1).id());
+    }
+
+    private void writeBatch(Writer out, FileChannel file, Batch batch, File progressFile) throws IOException {
+        for (String line : batch.lines()) {
+            out.write(line);
+            out.write('\n');
+        }
+        out.flush();
+        long csvBytes = file.position();
+
+        // Write-then-rename so a crash never leaves a half-written resume point
+        File tmp = new File(progressFile.getPath() + ".tmp");
+        Files.writeString(tmp.toPath(), batch.lastStudentId() + " " + csvBytes);
+        Files.move(tmp.toPath(), progressFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Batch await(Future<Batch> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    private void report(ProgressListener listener, long students, long rows, long start, int lastId) {
+        if (listener != null) {
+            listener.onProgress(progress(students, rows, start, lastId));
+        }
+    }
+
+    private Progress progress(long students, long rows, long start, int lastId) {
+        double seconds = Math.max((System.nanoTime() - start) / 1_000_000_000.0, 1e-9);
+        return new Progress(students, rows, rows / seconds, lastId);
+    }
+
+    // Quote a CSV field when it contains a delimiter, quote or line break
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,130 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.data.DatabaseFactory;
+import edu.univ.erp.data.SettingsRegistry;
+import edu.univ.erp.domain.TranscriptRow;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TranscriptService - Builds transcripts with one pivoted query per batch of students
+ *
+ * Grade components are stored one row per (enrollment, component). Instead of
+ * fetching them per enrollment, the query LEFT JOINs grades, pivots Quiz / Midterm /
+ * EndSem into columns with MAX(CASE ...) and computes the weighted final grade in
+ * the same GROUP BY pass.
+ */
+public class TranscriptService {
+
+    // Upper bound on student ids per IN (...) list
+    private static final int MAX_BATCH = 500;
+
+    private static final String PIVOT_SQL = """
+        SELECT e.student_id, e.enrollment_id, c.course_code, c.title,
+               COALESCE(MAX(CASE WHEN g.component_name = 'Quiz' THEN g.score END), 0) AS quiz,
+               COALESCE(MAX(CASE WHEN g.component_name = 'Midterm' THEN g.score END), 0) AS midterm,
+               COALESCE(MAX(CASE WHEN g.component_name = 'EndSem' THEN g.score END), 0) AS endsem,
+               COALESCE(MAX(CASE WHEN g.component_name = 'Quiz' THEN g.score END), 0) * ?
+             + COALESCE(MAX(CASE WHEN g.component_name = 'Midterm' THEN g.score END), 0) * ?
+             + COALESCE(MAX(CASE WHEN g.component_name = 'EndSem' THEN g.score END), 0) * ? AS final_grade
+        FROM enrollments e
+        JOIN sections s ON e.section_id = s.section_id
+        JOIN courses c ON s.course_code = c.course_code
+        LEFT JOIN grades g ON g.enrollment_id = e.enrollment_id
+        WHERE e.student_id IN (%s)
+        GROUP BY e.student_id, e.enrollment_id, c.course_code, c.title
+        ORDER BY e.student_id, e.enrollment_id
+        """;
+
+    private final DataSourceProvider db;
+
+    public TranscriptService() {
+        this(DatabaseFactory.provider());
+    }
+
+    public TranscriptService(DataSourceProvider db) {
+        this.db = db;
+    }
+
+    /**
+     * Weighted final grade using the weights of one settings snapshot, for callers
+     * that already hold the component scores. Load the snapshot off the Swing event
+     * thread, together with the scores (see SettingsRegistry.current()).
+     */
+    public static double weightedFinal(SettingsRegistry.Snapshot settings, double quiz, double midterm, double endsem) {
+        return (quiz * settings.get(SettingsRegistry.QUIZ_WEIGHT))
+                + (midterm * settings.get(SettingsRegistry.MIDTERM_WEIGHT))
+                + (endsem * settings.get(SettingsRegistry.ENDSEM_WEIGHT));
+    }
+
+    /**
+     * Transcript for one student: one row per enrollment.
+     */
+    public List<TranscriptRow> getTranscript(int studentId) throws SQLException {
+        return getTranscripts(List.of(studentId)).getOrDefault(studentId, Collections.emptyList());
+    }
+
+    /**
+     * Transcripts for a batch of students. Large batches are split into chunks of
+     * MAX_BATCH ids, each chunk being a single query on one connection.
+     *
+     * @return student id -> transcript rows, in the order the ids were given;
+     *         students without enrollments map to an empty list
+     */
+    public Map<Integer, List<TranscriptRow>> getTranscripts(List<Integer> studentIds) throws SQLException {
+        Map<Integer, List<TranscriptRow>> result = new LinkedHashMap<>();
+        for (Integer id : studentIds) {
+            result.put(id, new ArrayList<>());
+        }
+        if (studentIds.isEmpty()) {
+            return result;
+        }
+
+        // One snapshot for the whole call so every chunk uses the same weights
+        SettingsRegistry.Snapshot settings = SettingsRegistry.of(db).current();
+        try (Connection conn = db.getErpReadConnection()) {
+            for (int from = 0; from < studentIds.size(); from += MAX_BATCH) {
+                List<Integer> chunk = studentIds.subList(from, Math.min(from + MAX_BATCH, studentIds.size()));
+                loadChunk(conn, settings, chunk, result);
+            }
+        }
+        return result;
+    }
+
+    private void loadChunk(Connection conn, SettingsRegistry.Snapshot settings, List<Integer> chunk,
+                           Map<Integer, List<TranscriptRow>> result) throws SQLException {
+        String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+        try (PreparedStatement stmt = conn.prepareStatement(String.format(PIVOT_SQL, placeholders))) {
+            int idx = 1;
+            stmt.setDouble(idx++, settings.get(SettingsRegistry.QUIZ_WEIGHT));
+            stmt.setDouble(idx++, settings.get(SettingsRegistry.MIDTERM_WEIGHT));
+            stmt.setDouble(idx++, settings.get(SettingsRegistry.ENDSEM_WEIGHT));
+            for (Integer id : chunk) {
+                stmt.setInt(idx++, id);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int studentId = rs.getInt("student_id");
+                    result.get(studentId).add(new TranscriptRow(
+                            studentId,
+                            rs.getInt("enrollment_id"),
+                            rs.getString("course_code"),
+                            rs.getString("title"),
+                            rs.getDouble("quiz"),
+                            rs.getDouble("midterm"),
+                            rs.getDouble("endsem"),
+                            rs.getDouble("final_grade")));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,566 @@
+package edu.univ.erp.tools;
+
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.data.DatabaseFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * DataGenerator - Deterministic synthetic dataset for scale testing
+ *
+ * Adds users (univ_auth) and matching instructors, students, courses, sections,
+ * enrollments and grades (univ_erp) to a database loaded with setup.sql.
+ * The same Scale (including the seed and reference date) always produces the
+ * same rows; nothing depends on the current date.
+ *
+ * Shape:
+ * - Terms: the schema has no term column, so a term is a set of sections with
+ *   the same drop deadline; term 0 is current (deadline 30 days after the
+ *   reference date), older terms lie roughly six months apart before it
+ * - History: a student's year decides how many terms they attended, so seniors
+ *   have several terms of enrollments and grades, freshmen only the current one
+ * - Skew: section popularity follows a Zipf distribution within each term, so
+ *   some sections fill up (capacity is respected) while others stay half empty
+ * - Grades: past terms have all three components, the current term only some
+ *   quizzes; scores depend on a per-student ability, so transcripts differ
+ *
+ * Loading: ids are assigned here (continuing after the existing maximum) so no
+ * generated keys have to be read back; rows are sent in batches of BATCH_SIZE
+ * and committed per batch (Connector/J rewrites each batch into multi-row
+ * INSERTs, see driver.rewriteBatchedStatements). Seat counters are computed
+ * while planning and written with the sections.
+ *
+ * Usage:
+ *   mvn exec:java -Dexec.mainClass="edu.univ.erp.tools.DataGenerator" \
+ *       -Dexec.args="--students 100000 --sections 10000 --seed 42"
+ */
+public final class DataGenerator {
+
+    private static final int BATCH_SIZE = 5000;
+
+    // BCrypt hash of "password", same as setup.sql; hashing per user would take hours
+    private static final String PASSWORD_HASH = "$2a$10$13zqR9bFg81RgccFQVW7F.KQi0Pt9f38wPuY7su1rqbSI8CEKXQ9S";
+
+    private static final String COURSE_PREFIX = "GEN";
+    private static final double ZIPF_EXPONENT = 1.0;
+    private static final int MAX_PICK_ATTEMPTS = 20;
+
+    private static final String[] DEPARTMENTS = {
+            "Computer Science", "Mathematics", "Physics", "Electronics",
+            "Mechanical", "Biology", "Economics", "Design"
+    };
+    private static final String[] DAYS = {"Mon/Wed", "Tue/Thu", "Wed/Fri", "Mon/Thu", "Tue/Fri"};
+
+    /**
+     * Dataset size and shape.
+     *
+     * @param students        number of students
+     * @param instructors     number of instructors
+     * @param courses         number of courses
+     * @param sections        sections over all terms
+     * @param terms           terms of history including the current one
+     * @param sectionsPerTerm sections each student takes per attended term
+     * @param seed            random seed; equal seeds give equal datasets
+     * @param referenceDate   "today" for the data: admission years, roll numbers
+     *                        and drop deadlines are derived from it
+     */
+    public record Scale(int students, int instructors, int courses, int sections,
+                        int terms, int sectionsPerTerm, long seed, LocalDate referenceDate) {
+
+        /** Reference date used unless one is given, so default runs are repeatable */
+        public static final LocalDate DEFAULT_REFERENCE_DATE = LocalDate.of(2025, 9, 1);
+
+        public Scale {
+            if (students < 1 || instructors < 1 || courses < 1 || terms < 1 || sectionsPerTerm < 1) {
+                throw new IllegalArgumentException("All counts must be positive.");
+            }
+            if (sections < terms * sectionsPerTerm) {
+                throw new IllegalArgumentException("Need at least " + terms * sectionsPerTerm + " sections.");
+            }
+            if (referenceDate == null) {
+                throw new IllegalArgumentException("A reference date is required.");
+            }
+        }
+
+        /** Proportions used by the defaults: 1 instructor per 5 sections, 1 course per 4 */
+        public static Scale of(int students, int sections) {
+            return new Scale(students, Math.max(1, sections / 5), Math.max(1, sections / 4),
+                    sections, 3, 5, 42, DEFAULT_REFERENCE_DATE);
+        }
+    }
+
+    /** Rows written per table and total load time */
+    public record Summary(Map<String, Long> rows, long elapsedMillis) {
+
+        public long totalRows() {
+            return rows.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    private final DataSourceProvider db;
+    private final Scale scale;
+    private final Random random;
+
+    private final Map<String, Long> rowCounts = new LinkedHashMap<>();
+
+    // Plan, filled before anything is written
+    private int firstUserId;
+    private int firstSectionId;
+    private int firstEnrollmentId;
+    private int[] sectionTerm;
+    private int[] sectionCapacity;
+    private int[] sectionEnrolled;
+    private IntList enrollmentStudent;   // index into students
+    private IntList enrollmentSection;   // index into sections
+    private double[] ability;
+
+    public DataGenerator(DataSourceProvider db, Scale scale) {
+        this.db = db;
+        this.scale = scale;
+        this.random = new Random(scale.seed());
+    }
+
+    /**
+     * Plan and load the dataset.
+     *
+     * @throws Exception if generated data is already present or a write fails
+     */
+    public Summary generate() throws Exception {
+        long start = System.currentTimeMillis();
+        try (Connection auth = db.getAuthConnection(); Connection erp = db.getErpConnection()) {
+            readStartIds(auth, erp);
+            plan();
+
+            boolean authAutoCommit = auth.getAutoCommit();
+            boolean erpAutoCommit = erp.getAutoCommit();
+            auth.setAutoCommit(false);
+            erp.setAutoCommit(false);
+            try {
+                insertUsers(auth);
+                insertInstructors(erp);
+                insertStudents(erp);
+                insertCourses(erp);
+                insertSections(erp);
+                insertEnrollments(erp);
+                insertGrades(erp);
+            } finally {
+                auth.setAutoCommit(authAutoCommit);
+                erp.setAutoCommit(erpAutoCommit);
+            }
+        } catch (SQLException e) {
+            throw new Exception("Data generation failed: " + e.getMessage(), e);
+        }
+        db.noteWrite();
+        return new Summary(rowCounts, System.currentTimeMillis() - start);
+    }
+
+    /** First student's user id (students follow the instructors) */
+    public int firstStudentId() {
+        return firstUserId + scale.instructors();
+    }
+
+    /** First instructor's user id */
+    public int firstInstructorId() {
+        return firstUserId;
+    }
+
+    /** First generated section id */
+    public int firstSectionId() {
+        return firstSectionId;
+    }
+
+    // ---- Planning ----
+
+    private void readStartIds(Connection auth, Connection erp) throws Exception {
+        try (PreparedStatement stmt = erp.prepareStatement("SELECT 1 FROM courses WHERE course_code = ?")) {
+            stmt.setString(1, COURSE_PREFIX + 0);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    throw new Exception("Generated data is already present. Reload setup.sql first.");
+                }
+            }
+        }
+        firstUserId = Math.max(maxId(auth, "SELECT MAX(user_id) FROM users_auth"),
+                Math.max(maxId(erp, "SELECT MAX(user_id) FROM students"),
+                        maxId(erp, "SELECT MAX(user_id) FROM instructors"))) + 1;
+        firstSectionId = maxId(erp, "SELECT MAX(section_id) FROM sections") + 1;
+        firstEnrollmentId = maxId(erp, "SELECT MAX(enrollment_id) FROM enrollments") + 1;
+    }
+
+    private void plan() {
+        int students = scale.students();
+        int terms = scale.terms();
+        int perTerm = scale.sectionsPerTerm();
+
+        ability = new double[students];
+        for (int s = 0; s < students; s++) {
+            ability[s] = random.nextGaussian();
+        }
+
+        // Sections are laid out term by term; the remainder goes to the current term
+        int base = scale.sections() / terms;
+        int[] termStart = new int[terms + 1];
+        for (int t = 0; t < terms; t++) {
+            termStart[t + 1] = termStart[t] + base + (t == 0 ? scale.sections() % terms : 0);
+        }
+        sectionTerm = new int[scale.sections()];
+        sectionCapacity = new int[scale.sections()];
+        sectionEnrolled = new int[scale.sections()];
+
+        enrollmentStudent = new IntList(students * perTerm * 2);
+        enrollmentSection = new IntList(students * perTerm * 2);
+
+        int[] picked = new int[perTerm];
+        for (int t = 0; t < terms; t++) {
+            int from = termStart[t];
+            int count = termStart[t + 1] - from;
+
+            // Students who attended this term: everyone for term 0, fewer per older term
+            int attending = 0;
+            for (int s = 0; s < students; s++) {
+                if (termsAttended(s) > t) attending++;
+            }
+            // Enough seats overall, but popular sections still fill up
+            int capacity = roundUp((int) Math.ceil(attending * perTerm * 1.25 / count), 10);
+            for (int i = from; i < from + count; i++) {
+                sectionTerm[i] = t;
+                sectionCapacity[i] = capacity;
+            }
+
+            // Zipf over a shuffled order, so the popular ids are spread out
+            int[] order = shuffledRange(from, count);
+            double[] cumulative = zipfCumulative(count);
+
+            for (int s = 0; s < students; s++) {
+                if (termsAttended(s) <= t) continue;
+                int n = 0;
+                for (int k = 0; k < perTerm; k++) {
+                    int section = pick(order, cumulative, picked, n);
+                    if (section < 0) continue; // everything sampled was full
+                    picked[n++] = section;
+                    sectionEnrolled[section]++;
+                    enrollmentStudent.add(s);
+                    enrollmentSection.add(section);
+                }
+            }
+        }
+    }
+
+    // 1 + (number of older terms this student's cohort was around for)
+    private int termsAttended(int student) {
+        return 1 + student % scale.terms();
+    }
+
+    private int pick(int[] order, double[] cumulative, int[] picked, int pickedCount) {
+        for (int attempt = 0; attempt < MAX_PICK_ATTEMPTS; attempt++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+            if (rank < 0) rank = -rank - 1;
+            int section = order[Math.min(rank, order.length - 1)];
+            if (sectionEnrolled[section] < sectionCapacity[section] && !contains(picked, pickedCount, section)) {
+                return section;
+            }
+        }
+        return -1;
+    }
+
+    private int[] shuffledRange(int from, int count) {
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) order[i] = from + i;
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    private static double[] zipfCumulative(int n) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, ZIPF_EXPONENT);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < n; i++) cumulative[i] /= sum;
+        return cumulative;
+    }
+
+    // ---- Loading ----
+
+    private void insertUsers(Connection auth) throws SQLException {
+        String sql = "INSERT INTO users_auth (user_id, username, role, password_hash) VALUES (?, ?, ?, ?)";
+        try (Batch batch = new Batch(auth, sql, "users_auth")) {
+            for (int i = 0; i < scale.instructors(); i++) {
+                PreparedStatement stmt = batch.stmt();
+                stmt.setInt(1, firstUserId + i);
+                stmt.setString(2, "gen_inst" + i);
+                stmt.setString(3, "INSTRUCTOR");
+                stmt.setString(4, PASSWORD_HASH);
+                batch.add();
+            }
+            for (int i = 0; i < scale.students(); i++) {
+                PreparedStatement stmt = batch.stmt();
+                stmt.setInt(1, firstStudentId() + i);
+                stmt.setString(2, "gen_stu" + i);
+                stmt.setString(3, "STUDENT");
+                stmt.setString(4, PASSWORD_HASH);
+                batch.add();
+            }
+        }
+    }
+
+    private void insertInstructors(Connection erp) throws SQLException {
+        String sql = "INSERT INTO instructors (user_id, full_name, department) VALUES (?, ?, ?)";
+        try (Batch batch = new Batch(erp, sql, "instructors")) {
+            for (int i = 0; i < scale.instructors(); i++) {
+                PreparedStatement stmt = batch.stmt();
+                stmt.setInt(1, firstUserId + i);
+                stmt.setString(2, "Dr. Instructor " + i);
+                stmt.setString(3, DEPARTMENTS[i % DEPARTMENTS.length]);
+                batch.add();
+            }
+        }
+    }
+
+    private void insertStudents(Connection erp) throws SQLException {
+        String sql = "INSERT INTO students (user_id, full_name, roll_no, year) VALUES (?, ?, ?, ?)";
+        int currentYear = scale.referenceDate().getYear();
+        try (Batch batch = new Batch(erp, sql, "students")) {
+            for (int i = 0; i < scale.students(); i++) {
+                PreparedStatement stmt = batch.stmt();
+                // Admission year follows the number of terms attended (two terms a year)
+                int year = currentYear - (termsAttended(i) - 1) / 2;
+                stmt.setInt(1, firstStudentId() + i);
+                stmt.setString(2, "Student " + i);
+                stmt.setString(3, String.format("%d%06d", year, i));
+                stmt.setInt(4, year);
+                batch.add();
+            }
+        }
+    }
+
+    private void insertCourses(Connection erp) throws SQLException {
+        String sql = "INSERT INTO courses (course_code, title, credits) VALUES (?, ?, ?)";
+        try (Batch batch = new Batch(erp, sql, "courses")) {
+            for (int i = 0; i < scale.courses(); i++) {
+                PreparedStatement stmt = batch.stmt();
+                stmt.setString(1, COURSE_PREFIX + i);
+                stmt.setString(2, DEPARTMENTS[i % DEPARTMENTS.length] + " " + (100 + i / DEPARTMENTS.length));
+                stmt.setInt(3, 2 + random.nextInt(3));
+                batch.add();
+            }
+        }
+    }
+
+    private void insertSections(Connection erp) throws SQLException {
+        String sql = "INSERT INTO sections (section_id, course_code, instructor_id, days_times, room, " +
+                     "capacity, enrolled_count, drop_deadline) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        LocalDate currentDeadline = scale.referenceDate().plusDays(30);
+        try (Batch batch = new Batch(erp, sql, "sections")) {
+            for (int i = 0; i < scale.sections(); i++) {
+                PreparedStatement stmt = batch.stmt();
+                stmt.setInt(1, firstSectionId + i);
+                stmt.setString(2, COURSE_PREFIX + random.nextInt(scale.courses()));
+                stmt.setInt(3, firstUserId + random.nextInt(scale.instructors()));
+                stmt.setString(4, DAYS[random.nextInt(DAYS.length)] + " " + (8 + random.nextInt(10)) + ":00");
+                stmt.setString(5, "R" + (100 + random.nextInt(400)));
+                stmt.setInt(6, sectionCapacity[i]);
+                stmt.setInt(7, sectionEnrolled[i]);
+                stmt.setDate(8, java.sql.Date.valueOf(currentDeadline.minusDays(182L * sectionTerm[i])));
+                batch.add();
+            }
+        }
+    }
+
+    private void insertEnrollments(Connection erp) throws SQLException {
+        String sql = "INSERT INTO enrollments (enrollment_id, student_id, section_id) VALUES (?, ?, ?)";
+        try (Batch batch = new Batch(erp, sql, "enrollments")) {
+            for (int i = 0; i < enrollmentStudent.size(); i++) {
+                PreparedStatement stmt = batch.stmt();
+                stmt.setInt(1, firstEnrollmentId + i);
+                stmt.setInt(2, firstStudentId() + enrollmentStudent.get(i));
+                stmt.setInt(3, firstSectionId + enrollmentSection.get(i));
+                batch.add();
+            }
+        }
+    }
+
+    private void insertGrades(Connection erp) throws SQLException {
+        String sql = "INSERT INTO grades (enrollment_id, component_name, score) VALUES (?, ?, ?)";
+        try (Batch batch = new Batch(erp, sql, "grades")) {
+            for (int i = 0; i < enrollmentStudent.size(); i++) {
+                int enrollmentId = firstEnrollmentId + i;
+                double skill = ability[enrollmentStudent.get(i)];
+                boolean pastTerm = sectionTerm[enrollmentSection.get(i)] > 0;
+                if (pastTerm || random.nextBoolean()) {
+                    addGrade(batch, enrollmentId, "Quiz", score(20, skill));
+                }
+                if (pastTerm) {
+                    addGrade(batch, enrollmentId, "Midterm", score(30, skill));
+                    addGrade(batch, enrollmentId, "EndSem", score(50, skill));
+                }
+            }
+        }
+    }
+
+    private void addGrade(Batch batch, int enrollmentId, String component, double score) throws SQLException {
+        PreparedStatement stmt = batch.stmt();
+        stmt.setInt(1, enrollmentId);
+        stmt.setString(2, component);
+        stmt.setDouble(3, score);
+        batch.add();
+    }
+
+    // Around 70% of the maximum, shifted by ability, in half-point steps
+    private double score(double max, double skill) {
+        double fraction = 0.7 + 0.12 * skill + 0.08 * random.nextGaussian();
+        double value = Math.max(0, Math.min(max, fraction * max));
+        return Math.round(value * 2) / 2.0;
+    }
+
+    private static int roundUp(int value, int step) {
+        return Math.max(step, (value + step - 1) / step * step);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    private static int maxId(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /** Prepared INSERT that executes and commits every BATCH_SIZE rows */
+    private final class Batch implements AutoCloseable {
+        private final Connection conn;
+        private final PreparedStatement stmt;
+        private final String table;
+        private final long start = System.currentTimeMillis();
+        private int pending;
+        private long rows;
+
+        Batch(Connection conn, String sql, String table) throws SQLException {
+            this.conn = conn;
+            this.stmt = conn.prepareStatement(sql);
+            this.table = table;
+        }
+
+        PreparedStatement stmt() {
+            return stmt;
+        }
+
+        void add() throws SQLException {
+            stmt.addBatch();
+            rows++;
+            if (++pending == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (pending > 0) {
+                stmt.executeBatch();
+                conn.commit();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                stmt.close();
+            }
+            rowCounts.put(table, rows);
+            long millis = Math.max(System.currentTimeMillis() - start, 1);
+            System.out.printf("  %-12s %,10d rows  %,8d ms  %,10.0f rows/s%n", table, rows, millis, rows * 1000.0 / millis);
+        }
+    }
+
+    /** Growable int array; a List<Integer> of a few million boxed values is much larger */
+    private static final class IntList {
+        private int[] values;
+        private int size;
+
+        IntList(int capacity) {
+            values = new int[Math.max(capacity, 16)];
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    // ---- Command line ----
+
+    public static void main(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                System.err.println("Unexpected argument: " + args[i]);
+                usage();
+                return;
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        try {
+            int students = Integer.parseInt(options.getOrDefault("students", "100000"));
+            int sections = Integer.parseInt(options.getOrDefault("sections", "10000"));
+            Scale defaults = Scale.of(students, sections);
+            Scale scale = new Scale(students,
+                    Integer.parseInt(options.getOrDefault("instructors", String.valueOf(defaults.instructors()))),
+                    Integer.parseInt(options.getOrDefault("courses", String.valueOf(defaults.courses()))),
+                    sections,
+                    Integer.parseInt(options.getOrDefault("terms", String.valueOf(defaults.terms()))),
+                    Integer.parseInt(options.getOrDefault("perTerm", String.valueOf(defaults.sectionsPerTerm()))),
+                    Long.parseLong(options.getOrDefault("seed", String.valueOf(defaults.seed()))),
+                    LocalDate.parse(options.getOrDefault("date", defaults.referenceDate().toString())));
+
+            System.out.println("Generating " + scale);
+            Summary summary = new DataGenerator(DatabaseFactory.provider(), scale).generate();
+            System.out.printf("Loaded %,d rows in %,d ms%n", summary.totalRows(), summary.elapsedMillis());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println(e.getMessage());
+            usage();
+        } catch (Exception e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Options: --students N --sections N [--instructors N] [--courses N] "
+                + "[--terms N] [--perTerm N] [--seed N] [--date YYYY-MM-DD]");
+    }
+}
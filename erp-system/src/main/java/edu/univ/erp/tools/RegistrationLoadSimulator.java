@@ -0,0 +1,495 @@
+package edu.univ.erp.tools;
+
+import edu.univ.erp.auth.AuthService;
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.data.DatabaseFactory;
+import edu.univ.erp.data.PoolMetrics;
+import edu.univ.erp.domain.User;
+import edu.univ.erp.domain.UserRole;
+import edu.univ.erp.service.NotificationService;
+import edu.univ.erp.service.StudentService;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * RegistrationLoadSimulator - Registration rush against the configured database
+ *
+ * Every simulated student logs in through AuthService.login, waits for the
+ * start signal and then registers for / drops random hot sections through
+ * StudentService until the run time is over. Afterwards the database is
+ * checked for overbooked sections, seat counters that drifted from the
+ * enrollments table, duplicate enrollments, and enrollments that differ from
+ * what the simulated students were told.
+ *
+ * Threads: one virtual thread per student when the JVM has them (Java 21+;
+ * looked up reflectively because the build targets Java 17), otherwise one
+ * platform thread per student. Every student waits at the start barrier, so a
+ * pool smaller than the number of students would never release it.
+ *
+ * Hot sections default to the open sections (drop deadline not passed) with the
+ * fewest free seats, so registrations keep competing for the last seats.
+ *
+ * Usage (students must exist with the given password, e.g. from DataGenerator):
+ *   mvn exec:java -Dexec.mainClass="edu.univ.erp.tools.RegistrationLoadSimulator" \
+ *       -Dexec.args="--users 500 --hotSections 5 --seconds 30"
+ */
+public final class RegistrationLoadSimulator {
+
+    private static final String STUDENTS_SQL =
+            "SELECT user_id, username FROM users_auth WHERE role = 'STUDENT' AND status = 'ACTIVE' " +
+            "ORDER BY user_id LIMIT ?";
+
+    private static final String HOT_SECTIONS_SQL = """
+        SELECT section_id FROM sections
+        WHERE enrolled_count < capacity
+          AND (drop_deadline IS NULL OR drop_deadline >= CURRENT_DATE)
+        ORDER BY capacity - enrolled_count, section_id
+        LIMIT ?
+        """;
+
+    private static final String OVERBOOKED_SQL =
+            "SELECT COUNT(*) FROM sections WHERE enrolled_count > capacity";
+
+    private static final String DRIFT_SQL = """
+        SELECT COUNT(*) FROM sections s
+        WHERE s.enrolled_count <> (SELECT COUNT(*) FROM enrollments e WHERE e.section_id = s.section_id)
+        """;
+
+    private static final String DUPLICATES_SQL = """
+        SELECT COUNT(*) FROM (
+            SELECT student_id, section_id FROM enrollments
+            GROUP BY student_id, section_id HAVING COUNT(*) > 1
+        ) d
+        """;
+
+    /**
+     * Simulation settings.
+     *
+     * @param users       simulated students (taken in user id order)
+     * @param password    password of those students
+     * @param sectionIds  hot sections; empty = pick hotSections automatically
+     * @param hotSections number of sections to pick when sectionIds is empty
+     * @param seconds     length of the rush
+     * @param thinkMillis pause between a student's actions
+     * @param seed        seed for each student's choices (offset by the student index)
+     */
+    public record Options(int users, String password, List<Integer> sectionIds, int hotSections,
+                          int seconds, int thinkMillis, long seed) {}
+
+    /** Latency distribution of one operation, in milliseconds */
+    public record Latency(String operation, long count, double p50, double p95, double p99, double max) {}
+
+    /** Outcome of a run */
+    public record Report(String threads, int users, List<Integer> sections, double seconds,
+                         long loginFailures, long registered, long dropped, long full, long rejected, long errors,
+                         double registrationsPerSecond, double operationsPerSecond,
+                         List<Latency> latencies, double avgPoolWaitMillis, double lifetimeMaxPoolWaitMillis,
+                         long poolTimeouts, long overbooked, long counterDrift, long duplicates,
+                         long stateMismatches) {
+
+        public boolean invariantsHold() {
+            return overbooked == 0 && counterDrift == 0 && duplicates == 0 && stateMismatches == 0;
+        }
+    }
+
+    private final DataSourceProvider db;
+    private final Options options;
+    private final AuthService authService;
+    private final StudentService studentService;
+
+    private final AtomicLong loginFailures = new AtomicLong();
+    private final AtomicLong registered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong full = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    public RegistrationLoadSimulator(DataSourceProvider db, Options options) {
+        this.db = db;
+        this.options = options;
+        this.authService = new AuthService(db);
+        this.studentService = new StudentService(db);
+    }
+
+    public Report run() throws Exception {
+        List<String[]> accounts = loadStudents();
+        if (accounts.isEmpty()) {
+            throw new Exception("No active students to simulate.");
+        }
+        List<Integer> sections = options.sectionIds().isEmpty() ? pickHotSections() : options.sectionIds();
+        if (sections.isEmpty()) {
+            throw new Exception("No open sections with free seats.");
+        }
+
+        ExecutorService executor = newExecutor(accounts.size());
+        String threads = executor.getClass().getSimpleName().contains("ThreadPerTask")
+                ? "virtual" : "platform";
+        CountDownLatch ready = new CountDownLatch(accounts.size());
+        CountDownLatch go = new CountDownLatch(1);
+        long[] rushWindow = new long[2];
+
+        List<SimulatedStudent> students = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < accounts.size(); i++) {
+            SimulatedStudent student = new SimulatedStudent(accounts.get(i), sections, options.seed() + i);
+            students.add(student);
+            futures.add(executor.submit(() -> student.run(ready, go, rushWindow)));
+        }
+
+        ready.await();
+        PoolMetrics.Snapshot poolBefore = erpPoolSnapshot();
+        rushWindow[0] = System.nanoTime();
+        rushWindow[1] = rushWindow[0] + TimeUnit.SECONDS.toNanos(options.seconds());
+        go.countDown();
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double elapsed = (System.nanoTime() - rushWindow[0]) / 1e9;
+        executor.shutdown();
+        PoolMetrics.Snapshot poolAfter = erpPoolSnapshot();
+
+        List<Latency> latencies = List.of(
+                latency("login", students, s -> s.loginMillis),
+                latency("register", students, s -> s.registerMillis),
+                latency("drop", students, s -> s.dropMillis));
+
+        long acquired = poolAfter == null ? 0 : poolAfter.acquired() - (poolBefore == null ? 0 : poolBefore.acquired());
+        double waitTotal = poolAfter == null ? 0 : poolAfter.avgAcquireMillis() * poolAfter.acquired()
+                - (poolBefore == null ? 0 : poolBefore.avgAcquireMillis() * poolBefore.acquired());
+
+        for (SimulatedStudent student : students) {
+            NotificationService.clearNotifications(student.user);
+        }
+
+        return new Report(threads, students.size(), sections, elapsed,
+                loginFailures.get(), registered.get(), dropped.get(), full.get(), rejected.get(), errors.get(),
+                registered.get() / elapsed, (registered.get() + dropped.get() + full.get() + rejected.get()) / elapsed,
+                latencies,
+                acquired == 0 ? 0 : waitTotal / acquired,
+                // PoolMetrics keeps one running maximum, so it cannot be narrowed to the rush
+                poolAfter == null ? 0 : poolAfter.maxAcquireMillis(),
+                poolAfter == null ? 0 : poolAfter.timeouts() - (poolBefore == null ? 0 : poolBefore.timeouts()),
+                count(OVERBOOKED_SQL), count(DRIFT_SQL), count(DUPLICATES_SQL),
+                stateMismatches(students, sections));
+    }
+
+    // ---- Simulated student ----
+
+    private final class SimulatedStudent {
+        final User user;
+        final String username;
+        final List<Integer> sections;
+        final Random random;
+        final Set<Integer> enrolled = new HashSet<>();
+        boolean loggedIn;
+
+        final LongList loginMillis = new LongList();
+        final LongList registerMillis = new LongList();
+        final LongList dropMillis = new LongList();
+
+        SimulatedStudent(String[] account, List<Integer> sections, long seed) {
+            this.username = account[1];
+            this.user = new User(Integer.parseInt(account[0]), username, UserRole.STUDENT);
+            this.sections = sections;
+            this.random = new Random(seed);
+        }
+
+        void run(CountDownLatch ready, CountDownLatch go, long[] window) {
+            try {
+                long start = System.nanoTime();
+                try {
+                    authService.login(username, options.password());
+                    loginMillis.add(System.nanoTime() - start);
+                    loggedIn = true;
+                } catch (Exception e) {
+                    loginFailures.incrementAndGet();
+                    return;
+                } finally {
+                    ready.countDown();
+                }
+                go.await();
+                preloadEnrollments();
+
+                while (System.nanoTime() - window[1] < 0) {
+                    int section = sections.get(random.nextInt(sections.size()));
+                    if (enrolled.contains(section)) {
+                        drop(section);
+                    } else {
+                        register(section);
+                    }
+                    if (options.thinkMillis() > 0) {
+                        Thread.sleep(options.thinkMillis());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void register(int section) {
+            long start = System.nanoTime();
+            try {
+                studentService.register(user, section);
+                registerMillis.add(System.nanoTime() - start);
+                enrolled.add(section);
+                registered.incrementAndGet();
+            } catch (Exception e) {
+                registerMillis.add(System.nanoTime() - start);
+                String message = String.valueOf(e.getMessage());
+                if (message.contains("full")) {
+                    full.incrementAndGet();
+                } else if (message.contains("already registered")) {
+                    // We did not think we were enrolled: the client view was wrong
+                    enrolled.add(section);
+                    rejected.incrementAndGet();
+                } else {
+                    errors.incrementAndGet();
+                }
+            }
+        }
+
+        private void drop(int section) {
+            long start = System.nanoTime();
+            try {
+                studentService.drop(user, section);
+                dropMillis.add(System.nanoTime() - start);
+                enrolled.remove(section);
+                dropped.incrementAndGet();
+            } catch (Exception e) {
+                dropMillis.add(System.nanoTime() - start);
+                if (String.valueOf(e.getMessage()).contains("not enrolled")) {
+                    enrolled.remove(section);
+                    rejected.incrementAndGet();
+                } else {
+                    errors.incrementAndGet();
+                }
+            }
+        }
+
+        // Students may already hold some of the hot sections from earlier runs
+        private void preloadEnrollments() {
+            try {
+                for (Integer section : enrolledSections(user.getUserId())) {
+                    if (sections.contains(section)) {
+                        enrolled.add(section);
+                    }
+                }
+            } catch (SQLException e) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    // ---- Setup and checks ----
+
+    private List<String[]> loadStudents() throws SQLException {
+        List<String[]> accounts = new ArrayList<>();
+        try (Connection conn = db.getAuthConnection();
+             PreparedStatement stmt = conn.prepareStatement(STUDENTS_SQL)) {
+            stmt.setInt(1, options.users());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    accounts.add(new String[]{String.valueOf(rs.getInt("user_id")), rs.getString("username")});
+                }
+            }
+        }
+        return accounts;
+    }
+
+    private List<Integer> pickHotSections() throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = db.getErpConnection();
+             PreparedStatement stmt = conn.prepareStatement(HOT_SECTIONS_SQL)) {
+            stmt.setInt(1, options.hotSections());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt("section_id"));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private Set<Integer> enrolledSections(int studentId) throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        try (Connection conn = db.getErpConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT section_id FROM enrollments WHERE student_id = ?")) {
+            stmt.setInt(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt("section_id"));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Connection conn = db.getErpConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // Students whose hot-section enrollments in the database differ from what they were told
+    private long stateMismatches(List<SimulatedStudent> students, List<Integer> sections) throws SQLException {
+        long mismatches = 0;
+        for (SimulatedStudent student : students) {
+            if (!student.loggedIn) {
+                continue;
+            }
+            Set<Integer> actual = enrolledSections(student.user.getUserId());
+            actual.retainAll(sections);
+            if (!actual.equals(student.enrolled)) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    private static PoolMetrics.Snapshot erpPoolSnapshot() {
+        for (PoolMetrics.Snapshot snapshot : DatabaseFactory.getPoolStats()) {
+            if (snapshot.pool().equals("erp") || snapshot.pool().endsWith("-erp")) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    private static Latency latency(String operation, List<SimulatedStudent> students,
+                                   Function<SimulatedStudent, LongList> values) {
+        LongList all = new LongList();
+        for (SimulatedStudent student : students) {
+            all.addAll(values.apply(student));
+        }
+        long[] sorted = all.toSortedArray();
+        if (sorted.length == 0) {
+            return new Latency(operation, 0, 0, 0, 0, 0);
+        }
+        return new Latency(operation, sorted.length,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    /**
+     * Virtual-thread-per-task executor when the runtime provides one, else
+     * exactly one platform thread per task: every task blocks at the start
+     * barrier, so fewer threads would leave some tasks unstarted and the
+     * barrier closed for good.
+     */
+    static ExecutorService newExecutor(int tasks) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newFixedThreadPool(tasks, r -> {
+                Thread t = new Thread(r, "sim-student");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /** Append-only nanosecond samples of one student; only touched by its own thread */
+    private static final class LongList {
+        private long[] values = new long[64];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LongList other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] toSortedArray() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    // ---- Command line ----
+
+    public static void main(String[] args) {
+        Map<String, String> opts = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            opts.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        try {
+            List<Integer> sectionIds = new ArrayList<>();
+            if (opts.containsKey("sections")) {
+                for (String id : opts.get("sections").split(",")) {
+                    sectionIds.add(Integer.parseInt(id.trim()));
+                }
+            }
+            Options options = new Options(
+                    Integer.parseInt(opts.getOrDefault("users", "200")),
+                    opts.getOrDefault("password", "password"),
+                    sectionIds,
+                    Integer.parseInt(opts.getOrDefault("hotSections", "5")),
+                    Integer.parseInt(opts.getOrDefault("seconds", "20")),
+                    Integer.parseInt(opts.getOrDefault("thinkMs", "0")),
+                    Long.parseLong(opts.getOrDefault("seed", "42")));
+
+            Report report = new RegistrationLoadSimulator(DatabaseFactory.provider(), options).run();
+            print(report);
+            System.exit(report.invariantsHold() ? 0 : 2);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number: " + e.getMessage());
+            System.err.println("Options: --users N --hotSections N | --sections id,id --seconds N "
+                    + "[--thinkMs N] [--password P] [--seed N]");
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void print(Report r) {
+        System.out.printf("%d students on %s threads, sections %s, %.1f s%n", r.users(), r.threads(), r.sections(), r.seconds());
+        System.out.printf("Login failures: %,d%n", r.loginFailures());
+        System.out.printf("Registrations: %,d (%.1f/s)  drops: %,d  full: %,d  rejected: %,d  errors: %,d%n",
+                r.registered(), r.registrationsPerSecond(), r.dropped(), r.full(), r.rejected(), r.errors());
+        System.out.printf("Throughput: %.1f operations/s%n", r.operationsPerSecond());
+        System.out.println("Latency (ms)      count      p50      p95      p99      max");
+        for (Latency l : r.latencies()) {
+            System.out.printf("  %-10s %,10d %8.2f %8.2f %8.2f %8.2f%n", l.operation(), l.count(), l.p50(), l.p95(), l.p99(), l.max());
+        }
+        System.out.printf("ERP pool wait during the rush: avg %.2f ms, timeouts %d (max since pool start: %.2f ms)%n",
+                r.avgPoolWaitMillis(), r.poolTimeouts(), r.lifetimeMaxPoolWaitMillis());
+        System.out.printf("Invariants: overbooked=%d counterDrift=%d duplicates=%d stateMismatches=%d -> %s%n",
+                r.overbooked(), r.counterDrift(), r.duplicates(), r.stateMismatches(),
+                r.invariantsHold() ? "OK" : "VIOLATED");
+    }
+}
@@ -1,16 +1,22 @@
 package edu.univ.erp.ui;
 
 import com.formdev.flatlaf.FlatClientProperties;
+import edu.univ.erp.data.PoolMetrics;
+import edu.univ.erp.data.QueryStats;
+import edu.univ.erp.domain.CourseSummary;
+import edu.univ.erp.domain.InstructorSummary;
+import edu.univ.erp.domain.SeatCountDrift;
 import edu.univ.erp.domain.UserRole;
 import edu.univ.erp.service.AdminService;
+import edu.univ.erp.service.TranscriptExporter;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.util.List;
-import java.util.Map;
 
 /**
  * AdminPanel - Modern Sidebar Layout
@@ -19,11 +25,14 @@ import java.util.Map;
  * - Left Sidebar Navigation (Dark Theme)
  * - CardLayout for content switching
  * - GridBagLayout for aligned forms
- * - Auto-refreshing dropdowns when panels are opened
+ * - Auto-refreshing dropdowns when panels are opened, loaded in the background (TaskRunner)
+ * - Form submissions and database tools (backup, restore, reconcile) run in the
+ *   background too; their button stays disabled until they finish
  */
 public class AdminPanel extends JPanel {
 
     private final AdminService adminService;
+    private final TaskRunner tasks = new TaskRunner(this);
     private final CardLayout contentLayout = new CardLayout();
     private final JPanel contentPanel = new JPanel(contentLayout);
     
@@ -78,6 +87,8 @@ public class AdminPanel extends JPanel {
         sidebar.add(createNavButton("Manage Sections", "SECTIONS"));
         sidebar.add(Box.createVerticalStrut(5));
         sidebar.add(createNavButton("System Settings", "SETTINGS"));
+        sidebar.add(Box.createVerticalStrut(15));
+        sidebar.add(tasks.getBusyIndicator());
 
         return sidebar;
     }
@@ -104,7 +115,10 @@ public class AdminPanel extends JPanel {
         });
 
         // Action: Switch Card
-        btn.addActionListener(e -> contentLayout.show(contentPanel, cardName));
+        btn.addActionListener(e -> {
+            tasks.cancelLoads();
+            contentLayout.show(contentPanel, cardName);
+        });
 
         return btn;
     }
@@ -148,47 +162,49 @@ public class AdminPanel extends JPanel {
         // Action Button
         JButton createBtn = createPrimaryButton("Create User");
         createBtn.addActionListener(e -> {
-            try {
-                // Validate inputs
-                String username = userField.getText().trim();
-                String password = new String(passField.getPassword());
-                String fullName = nameField.getText().trim();
-                String extra = extraField.getText().trim();
-                
-                if (username.isEmpty()) {
-                    JOptionPane.showMessageDialog(this, "Username cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                if (password.isEmpty()) {
-                    JOptionPane.showMessageDialog(this, "Password cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                if (password.length() < 4) {
-                    JOptionPane.showMessageDialog(this, "Password must be at least 4 characters long.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                if (fullName.isEmpty()) {
-                    JOptionPane.showMessageDialog(this, "Full name cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                if (extra.isEmpty()) {
-                    JOptionPane.showMessageDialog(this, "Please enter Roll Number for students or Department for instructors.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                adminService.registerUser(username, password, (UserRole) roleBox.getSelectedItem(), fullName, extra);
+            // Validate inputs
+            String username = userField.getText().trim();
+            String password = new String(passField.getPassword());
+            String fullName = nameField.getText().trim();
+            String extra = extraField.getText().trim();
+            
+            if (username.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Username cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            if (password.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Password cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            if (password.length() < 4) {
+                JOptionPane.showMessageDialog(this, "Password must be at least 4 characters long.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            if (fullName.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Full name cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            if (extra.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Please enter Roll Number for students or Department for instructors.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            UserRole role = (UserRole) roleBox.getSelectedItem();
+            // Hashing the password with BCrypt takes a noticeable moment; keep it off the EDT
+            tasks.perform(createBtn, () -> {
+                adminService.registerUser(username, password, role, fullName, extra);
+                return null;
+            }, done -> {
                 JOptionPane.showMessageDialog(this, "User account created successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 userField.setText("");
                 passField.setText("");
                 nameField.setText("");
                 extraField.setText("");
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, ex.getMessage(), "Registration Failed", JOptionPane.ERROR_MESSAGE);
-            }
+            }, ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Registration Failed", JOptionPane.ERROR_MESSAGE));
         });
 
         gbc.gridx = 1; gbc.gridy++;
@@ -229,53 +245,53 @@ public class AdminPanel extends JPanel {
 
         JButton addBtn = createPrimaryButton("Add Course");
         addBtn.addActionListener(e -> {
+            // Validate inputs
+            String courseCode = codeField.getText().trim();
+            String courseTitle = titleField.getText().trim();
+            String creditsStr = creditsField.getText().trim();
+            
+            if (courseCode.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Course code cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            if (courseTitle.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Course title cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            if (creditsStr.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Credits cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            int credits;
             try {
-                // Validate inputs
-                String courseCode = codeField.getText().trim();
-                String courseTitle = titleField.getText().trim();
-                String creditsStr = creditsField.getText().trim();
-                
-                if (courseCode.isEmpty()) {
-                    JOptionPane.showMessageDialog(this, "Course code cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                if (courseTitle.isEmpty()) {
-                    JOptionPane.showMessageDialog(this, "Course title cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                if (creditsStr.isEmpty()) {
-                    JOptionPane.showMessageDialog(this, "Credits cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                int credits;
-                try {
-                    credits = Integer.parseInt(creditsStr);
-                } catch (NumberFormatException nfe) {
-                    JOptionPane.showMessageDialog(this, "Please enter a valid number for credits.", "Invalid Input", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-                
-                if (credits <= 0) {
-                    JOptionPane.showMessageDialog(this, "Credits must be a positive number.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                if (credits > 10) {
-                    JOptionPane.showMessageDialog(this, "Credits cannot exceed 10.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
+                credits = Integer.parseInt(creditsStr);
+            } catch (NumberFormatException nfe) {
+                JOptionPane.showMessageDialog(this, "Please enter a valid number for credits.", "Invalid Input", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            
+            if (credits <= 0) {
+                JOptionPane.showMessageDialog(this, "Credits must be a positive number.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            if (credits > 10) {
+                JOptionPane.showMessageDialog(this, "Credits cannot exceed 10.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            tasks.perform(addBtn, () -> {
                 adminService.createCourse(courseCode, courseTitle, credits);
+                return null;
+            }, done -> {
                 JOptionPane.showMessageDialog(this, "Course added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 codeField.setText("");
                 titleField.setText("");
                 creditsField.setText("");
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, ex.getMessage(), "Unable to Add Course", JOptionPane.ERROR_MESSAGE);
-            }
+            }, ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Unable to Add Course", JOptionPane.ERROR_MESSAGE));
         });
 
         gbc.gridx = 1; gbc.gridy++;
@@ -333,7 +349,7 @@ public class AdminPanel extends JPanel {
         panel.addComponentListener(new ComponentAdapter() {
             @Override
             public void componentShown(ComponentEvent e) {
-                loadDropdowns(courseBox, instructorBox, courseCodes, instructorIds);
+                loadDropdowns(courseBox, instructorBox, courseCodes, instructorIds, null);
             }
         });
 
@@ -351,95 +367,92 @@ public class AdminPanel extends JPanel {
         JButton refreshBtn = new JButton("Refresh Lists");
         refreshBtn.setFont(new Font("Segoe UI", Font.PLAIN, 13));
         refreshBtn.putClientProperty(FlatClientProperties.STYLE, "arc: 10");
-        refreshBtn.addActionListener(e -> {
-            loadDropdowns(courseBox, instructorBox, courseCodes, instructorIds);
-            JOptionPane.showMessageDialog(this, "Course and instructor lists refreshed!", "Refreshed", JOptionPane.INFORMATION_MESSAGE);
-        });
+        refreshBtn.addActionListener(e -> loadDropdowns(courseBox, instructorBox, courseCodes, instructorIds,
+                () -> JOptionPane.showMessageDialog(this, "Course and instructor lists refreshed!", "Refreshed", JOptionPane.INFORMATION_MESSAGE)));
         
         JButton createBtn = createPrimaryButton("Create Section");
         createBtn.addActionListener(e -> {
+            // Validate selections
+            if (courseBox.getSelectedIndex() == -1) {
+                JOptionPane.showMessageDialog(this, "Please select a course.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            if (instructorBox.getSelectedIndex() == -1) {
+                JOptionPane.showMessageDialog(this, "Please select an instructor.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            // Validate text inputs
+            String daysTime = timeField.getText().trim();
+            String room = roomField.getText().trim();
+            String capacityStr = capField.getText().trim();
+            
+            if (daysTime.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Days and time cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            if (room.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Room cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            if (capacityStr.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Capacity cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            int capacity;
             try {
-                // Validate selections
-                if (courseBox.getSelectedIndex() == -1) {
-                    JOptionPane.showMessageDialog(this, "Please select a course.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                if (instructorBox.getSelectedIndex() == -1) {
-                    JOptionPane.showMessageDialog(this, "Please select an instructor.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                // Validate text inputs
-                String daysTime = timeField.getText().trim();
-                String room = roomField.getText().trim();
-                String capacityStr = capField.getText().trim();
-                
-                if (daysTime.isEmpty()) {
-                    JOptionPane.showMessageDialog(this, "Days and time cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                if (room.isEmpty()) {
-                    JOptionPane.showMessageDialog(this, "Room cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                if (capacityStr.isEmpty()) {
-                    JOptionPane.showMessageDialog(this, "Capacity cannot be empty.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                int capacity;
-                try {
-                    capacity = Integer.parseInt(capacityStr);
-                } catch (NumberFormatException nfe) {
-                    JOptionPane.showMessageDialog(this, "Please enter a valid number for capacity.", "Invalid Input", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-                
-                if (capacity <= 0) {
-                    JOptionPane.showMessageDialog(this, "Capacity must be a positive number.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                if (capacity > 500) {
-                    JOptionPane.showMessageDialog(this, "Capacity cannot exceed 500.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                String code = courseCodes.get(courseBox.getSelectedIndex());
-                int instId = instructorIds.get(instructorBox.getSelectedIndex());
-                
-                // Get deadline from spinner
-                java.util.Date spinnerDate = (java.util.Date) deadlineSpinner.getValue();
-                if (spinnerDate == null) {
-                    JOptionPane.showMessageDialog(this, "Please select a drop deadline.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                java.time.LocalDate deadline = new java.sql.Date(spinnerDate.getTime()).toLocalDate();
-                
-                // Validate that deadline is not in the past
-                if (deadline.isBefore(java.time.LocalDate.now())) {
-                    JOptionPane.showMessageDialog(this, "Drop deadline cannot be in the past.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
+                capacity = Integer.parseInt(capacityStr);
+            } catch (NumberFormatException nfe) {
+                JOptionPane.showMessageDialog(this, "Please enter a valid number for capacity.", "Invalid Input", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            
+            if (capacity <= 0) {
+                JOptionPane.showMessageDialog(this, "Capacity must be a positive number.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            if (capacity > 500) {
+                JOptionPane.showMessageDialog(this, "Capacity cannot exceed 500.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            String code = courseCodes.get(courseBox.getSelectedIndex());
+            int instId = instructorIds.get(instructorBox.getSelectedIndex());
+            
+            // Get deadline from spinner
+            java.util.Date spinnerDate = (java.util.Date) deadlineSpinner.getValue();
+            if (spinnerDate == null) {
+                JOptionPane.showMessageDialog(this, "Please select a drop deadline.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            java.time.LocalDate deadline = new java.sql.Date(spinnerDate.getTime()).toLocalDate();
+            
+            // Validate that deadline is not in the past
+            if (deadline.isBefore(java.time.LocalDate.now())) {
+                JOptionPane.showMessageDialog(this, "Drop deadline cannot be in the past.", "Invalid Input", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            tasks.perform(createBtn, () -> {
                 adminService.createSection(code, instId, daysTime, room, capacity, deadline);
-                
+                return null;
+            }, done -> {
                 JOptionPane.showMessageDialog(this, "Section created successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 timeField.setText("");
                 roomField.setText("");
                 capField.setText("");
-                
+
                 // Reset deadline to default (3 months from now)
                 java.util.Calendar resetCal = java.util.Calendar.getInstance();
                 resetCal.add(java.util.Calendar.MONTH, 3);
                 deadlineSpinner.setValue(resetCal.getTime());
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, ex.getMessage(), "Unable to Create Section", JOptionPane.ERROR_MESSAGE);
-            }
+            }, ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Unable to Create Section", JOptionPane.ERROR_MESSAGE));
         });
 
         btnPanel.add(refreshBtn);
@@ -455,7 +468,7 @@ public class AdminPanel extends JPanel {
         wrapper.add(panel);
         
         // Initial load
-        loadDropdowns(courseBox, instructorBox, courseCodes, instructorIds);
+        loadDropdowns(courseBox, instructorBox, courseCodes, instructorIds, null);
         
         return wrapper;
     }
@@ -477,20 +490,19 @@ public class AdminPanel extends JPanel {
         maintToggle.setFocusPainted(false);
         
         // Load initial state
-        try {
-            maintToggle.setSelected(adminService.isMaintenanceMode());
-        } catch (Exception ignored) {}
+        tasks.perform(maintToggle, adminService::isMaintenanceMode, maintToggle::setSelected, ignored -> {});
 
         maintToggle.addActionListener(e -> {
-            try {
-                adminService.setMaintenanceMode(maintToggle.isSelected());
-                String status = maintToggle.isSelected() 
+            boolean on = maintToggle.isSelected();
+            tasks.perform(maintToggle, () -> {
+                adminService.setMaintenanceMode(on);
+                return null;
+            }, done -> {
+                String status = on
                     ? "Maintenance mode is now ON. Users cannot make changes." 
                     : "Maintenance mode is now OFF. Normal operation resumed.";
                 JOptionPane.showMessageDialog(this, status, "Maintenance Mode Updated", JOptionPane.INFORMATION_MESSAGE);
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, ex.getMessage(), "Update Failed", JOptionPane.ERROR_MESSAGE);
-            }
+            }, ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Update Failed", JOptionPane.ERROR_MESSAGE));
         });
 
         // 2. Database Controls
@@ -503,12 +515,12 @@ public class AdminPanel extends JPanel {
             JFileChooser fc = new JFileChooser();
             fc.setSelectedFile(new java.io.File("erp_backup.sql"));
             if (fc.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-                try {
-                    adminService.backupDB(fc.getSelectedFile().getAbsolutePath());
-                    JOptionPane.showMessageDialog(this, "Database backup completed successfully!", "Backup Complete", JOptionPane.INFORMATION_MESSAGE);
-                } catch (Exception ex) {
-                    JOptionPane.showMessageDialog(this, "Unable to backup database. Please check permissions and try again.", "Backup Failed", JOptionPane.ERROR_MESSAGE);
-                }
+                String path = fc.getSelectedFile().getAbsolutePath();
+                tasks.perform(backupBtn, () -> {
+                    adminService.backupDB(path);
+                    return null;
+                }, done -> JOptionPane.showMessageDialog(this, "Database backup completed successfully!", "Backup Complete", JOptionPane.INFORMATION_MESSAGE),
+                        ex -> JOptionPane.showMessageDialog(this, "Unable to backup database. Please check permissions and try again.", "Backup Failed", JOptionPane.ERROR_MESSAGE));
             }
         });
 
@@ -519,16 +531,53 @@ public class AdminPanel extends JPanel {
             JFileChooser fc = new JFileChooser();
             if (fc.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
                 if (JOptionPane.showConfirmDialog(this, "This will overwrite all current data. Are you sure?", "Confirm Restore", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE) == JOptionPane.YES_OPTION) {
-                    try {
-                        adminService.restoreDB(fc.getSelectedFile().getAbsolutePath());
-                        JOptionPane.showMessageDialog(this, "Database restored successfully!", "Restore Complete", JOptionPane.INFORMATION_MESSAGE);
-                    } catch (Exception ex) {
-                        JOptionPane.showMessageDialog(this, "Unable to restore database. Please check the file and try again.", "Restore Failed", JOptionPane.ERROR_MESSAGE);
-                    }
+                    String path = fc.getSelectedFile().getAbsolutePath();
+                    tasks.perform(restoreBtn, () -> {
+                        adminService.restoreDB(path);
+                        return null;
+                    }, done -> JOptionPane.showMessageDialog(this, "Database restored successfully!", "Restore Complete", JOptionPane.INFORMATION_MESSAGE),
+                            ex -> JOptionPane.showMessageDialog(this, "Unable to restore database. Please check the file and try again.", "Restore Failed", JOptionPane.ERROR_MESSAGE));
                 }
             }
         });
 
+        JButton reconcileBtn = new JButton("Reconcile Seat Counts");
+        reconcileBtn.addActionListener(e -> tasks.perform(reconcileBtn, adminService::reconcileEnrollmentCounts, repaired -> {
+            if (repaired.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "All section seat counts are consistent.", "Reconcile Complete", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            StringBuilder sb = new StringBuilder("Repaired " + repaired.size() + " section(s):\n");
+            for (SeatCountDrift r : repaired) {
+                sb.append("Section ").append(r.sectionId()).append(" (").append(r.courseCode()).append("): ")
+                  .append(r.stored()).append(" -> ").append(r.actual()).append("\n");
+            }
+            JOptionPane.showMessageDialog(this, sb.toString(), "Reconcile Complete", JOptionPane.INFORMATION_MESSAGE);
+        }, ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Reconcile Failed", JOptionPane.ERROR_MESSAGE)));
+
+        JButton poolStatsBtn = new JButton("Connection Pool Stats");
+        poolStatsBtn.addActionListener(e -> showPoolStats());
+
+        JButton queryStatsBtn = new JButton("Query Stats");
+        queryStatsBtn.addActionListener(e -> showQueryStats());
+
+        // 3. Registrar Exports
+        JLabel exportTitle = new JLabel("Registrar Exports");
+        exportTitle.setFont(new Font("Segoe UI", Font.BOLD, 18));
+
+        JLabel exportStatus = new JLabel(" ");
+        exportStatus.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        exportStatus.setForeground(new Color(100, 100, 100));
+
+        JButton exportBtn = createPrimaryButton("Export All Transcripts (CSV)");
+        exportBtn.addActionListener(e -> {
+            JFileChooser fc = new JFileChooser();
+            fc.setSelectedFile(new java.io.File("all_transcripts.csv"));
+            if (fc.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+                exportAllTranscripts(fc.getSelectedFile(), exportBtn, exportStatus);
+            }
+        });
+
         // Assembly
         panel.add(maintTitle);
         panel.add(Box.createVerticalStrut(10));
@@ -544,7 +593,25 @@ public class AdminPanel extends JPanel {
         btnPanel.add(backupBtn);
         btnPanel.add(Box.createHorizontalStrut(15));
         btnPanel.add(restoreBtn);
+        btnPanel.add(Box.createHorizontalStrut(15));
+        btnPanel.add(reconcileBtn);
+        btnPanel.add(Box.createHorizontalStrut(15));
+        btnPanel.add(poolStatsBtn);
+        btnPanel.add(Box.createHorizontalStrut(15));
+        btnPanel.add(queryStatsBtn);
         panel.add(btnPanel);
+        panel.add(Box.createVerticalStrut(40));
+        panel.add(new JSeparator());
+        panel.add(Box.createVerticalStrut(20));
+        panel.add(exportTitle);
+        panel.add(Box.createVerticalStrut(15));
+
+        JPanel exportPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        exportPanel.setOpaque(false);
+        exportPanel.add(exportBtn);
+        exportPanel.add(Box.createHorizontalStrut(15));
+        exportPanel.add(exportStatus);
+        panel.add(exportPanel);
 
         JPanel wrapper = new JPanel(new FlowLayout(FlowLayout.CENTER));
         wrapper.setOpaque(false);
@@ -552,6 +619,122 @@ public class AdminPanel extends JPanel {
         return wrapper;
     }
 
+    // Live pool gauges plus wait/hold times since startup, for sizing the pools
+    private void showPoolStats() {
+        String[] cols = {"Pool", "Active", "Idle", "Total", "Max", "Waiting",
+                "Checkouts", "Avg Wait (ms)", "Max Wait (ms)", "Avg Hold (ms)", "Max Hold (ms)", "Timeouts"};
+        DefaultTableModel model = new DefaultTableModel(cols, 0);
+        for (PoolMetrics.Snapshot p : adminService.getPoolStats()) {
+            model.addRow(new Object[]{
+                    p.pool(), p.active(), p.idle(), p.total(), p.max(), p.pending(),
+                    p.acquired(),
+                    String.format("%.2f", p.avgAcquireMillis()),
+                    String.format("%.2f", p.maxAcquireMillis()),
+                    String.format("%.1f", p.avgUsageMillis()),
+                    p.maxUsageMillis(),
+                    p.timeouts()
+            });
+        }
+        JTable table = new JTable(model);
+        table.setEnabled(false);
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setPreferredSize(new Dimension(900, 90));
+        JOptionPane.showMessageDialog(this, scroll, "Connection Pool Stats", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    // Slowest statements by total time, plus connection hold times per pool
+    private void showQueryStats() {
+        if (!adminService.isQueryStatsEnabled()) {
+            JOptionPane.showMessageDialog(this,
+                    "Query statistics are off.\nStart the application with -Djdbc.instrumentation=true to collect them.",
+                    "Query Stats", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        String[] cols = {"SQL", "Count", "Errors", "Rows", "Total (ms)", "Avg (ms)",
+                "p50 (ms)", "p95 (ms)", "p99 (ms)", "Max (ms)"};
+        DefaultTableModel statements = new DefaultTableModel(cols, 0);
+        List<QueryStats.Entry> entries = adminService.getQueryStats();
+        for (QueryStats.Entry q : entries.subList(0, Math.min(entries.size(), 50))) {
+            statements.addRow(queryStatsRow(q));
+        }
+        DefaultTableModel holds = new DefaultTableModel(cols, 0);
+        for (QueryStats.Entry h : adminService.getConnectionHoldStats()) {
+            holds.addRow(queryStatsRow(h));
+        }
+
+        JTable stmtTable = new JTable(statements);
+        stmtTable.setEnabled(false);
+        stmtTable.getColumnModel().getColumn(0).setPreferredWidth(500);
+        JScrollPane stmtScroll = new JScrollPane(stmtTable);
+        stmtScroll.setPreferredSize(new Dimension(1000, 320));
+
+        JTable holdTable = new JTable(holds);
+        holdTable.setEnabled(false);
+        JScrollPane holdScroll = new JScrollPane(holdTable);
+        holdScroll.setPreferredSize(new Dimension(1000, 90));
+
+        JPanel content = new JPanel(new BorderLayout(0, 10));
+        content.add(stmtScroll, BorderLayout.CENTER);
+        JPanel holdPanel = new JPanel(new BorderLayout(0, 5));
+        holdPanel.add(new JLabel("Connection hold time per pool"), BorderLayout.NORTH);
+        holdPanel.add(holdScroll, BorderLayout.CENTER);
+        content.add(holdPanel, BorderLayout.SOUTH);
+
+        Object[] options = {"Close", "Reset"};
+        int choice = JOptionPane.showOptionDialog(this, content, "Query Stats",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
+        if (choice == 1) {
+            adminService.resetQueryStats();
+        }
+    }
+
+    private Object[] queryStatsRow(QueryStats.Entry q) {
+        return new Object[]{
+                q.key(), q.count(), q.errors(), q.rows(),
+                String.format("%.1f", q.totalMillis()),
+                String.format("%.2f", q.avgMillis()),
+                String.format("%.2f", q.p50Millis()),
+                String.format("%.2f", q.p95Millis()),
+                String.format("%.2f", q.p99Millis()),
+                String.format("%.2f", q.maxMillis())
+        };
+    }
+
+    // Runs the bulk export on a worker thread and streams progress into the status label
+    private void exportAllTranscripts(java.io.File file, JButton exportBtn, JLabel status) {
+        exportBtn.setEnabled(false);
+        status.setText("Starting export...");
+
+        SwingWorker<TranscriptExporter.Progress, TranscriptExporter.Progress> worker = new SwingWorker<>() {
+            @Override
+            protected TranscriptExporter.Progress doInBackground() throws Exception {
+                return adminService.exportAllTranscripts(file, this::publish);
+            }
+
+            @Override
+            protected void process(List<TranscriptExporter.Progress> chunks) {
+                TranscriptExporter.Progress p = chunks.get(chunks.size() - 1);
+                status.setText(String.format("%,d students, %,d rows (%,.0f rows/s)",
+                        p.students(), p.rows(), p.rowsPerSecond()));
+            }
+
+            @Override
+            protected void done() {
+                exportBtn.setEnabled(true);
+                try {
+                    TranscriptExporter.Progress p = get();
+                    status.setText(String.format("Done: %,d students, %,d rows (%,.0f rows/s)",
+                            p.students(), p.rows(), p.rowsPerSecond()));
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    status.setText("Export interrupted - run again to resume.");
+                    JOptionPane.showMessageDialog(AdminPanel.this, cause.getMessage(), "Export Failed", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+
     // --- UTILITIES ---
 
     private void addFormRow(JPanel panel, GridBagConstraints gbc, String labelText, JComponent field) {
@@ -584,25 +767,32 @@ public class AdminPanel extends JPanel {
         return btn;
     }
 
-    private void loadDropdowns(JComboBox<String> courseBox, JComboBox<String> instBox, 
-                               List<String> codes, List<Integer> ids) {
-        try {
-            courseBox.removeAllItems();
-            instBox.removeAllItems();
-            codes.clear();
-            ids.clear();
-
-            for (Map<String, String> c : adminService.getAllCourses()) {
-                courseBox.addItem(c.get("code") + ": " + c.get("title"));
-                codes.add(c.get("code"));
-            }
+    // Courses and instructors for the section form, fetched together in the background
+    private record DropdownData(List<CourseSummary> courses, List<InstructorSummary> instructors) {}
+
+    private void loadDropdowns(JComboBox<String> courseBox, JComboBox<String> instBox,
+                               List<String> codes, List<Integer> ids, Runnable onLoaded) {
+        tasks.load("dropdowns",
+                () -> new DropdownData(adminService.getAllCourses(), adminService.getAllInstructors()),
+                data -> {
+                    courseBox.removeAllItems();
+                    instBox.removeAllItems();
+                    codes.clear();
+                    ids.clear();
+
+                    for (CourseSummary c : data.courses()) {
+                        courseBox.addItem(c.code() + ": " + c.title());
+                        codes.add(c.code());
+                    }
 
-            for (Map<String, String> i : adminService.getAllInstructors()) {
-                instBox.addItem(i.get("name"));
-                ids.add(Integer.parseInt(i.get("id")));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+                    for (InstructorSummary i : data.instructors()) {
+                        instBox.addItem(i.fullName());
+                        ids.add(i.userId());
+                    }
+                    if (onLoaded != null) {
+                        onLoaded.run();
+                    }
+                },
+                Exception::printStackTrace);
     }
 }
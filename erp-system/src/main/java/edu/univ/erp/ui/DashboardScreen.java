@@ -27,6 +27,7 @@ public class DashboardScreen extends JFrame {
 
     // Service for password changes
     private final AuthService authService = new AuthService();
+    private final TaskRunner tasks = new TaskRunner(getRootPane());
 
     public DashboardScreen() {
         // Session validation - ensure user is still logged in
@@ -136,12 +137,13 @@ public class DashboardScreen extends JFrame {
                 return;
             }
 
-            try {
-                authService.changePassword(SessionManager.getCurrentUser().getUserId(), old, p1);
-                JOptionPane.showMessageDialog(this, "Your password has been changed successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, ex.getMessage(), "Password Change Failed", JOptionPane.ERROR_MESSAGE);
-            }
+            // BCrypt verify + hash takes a noticeable moment: keep it off the EDT
+            int userId = SessionManager.getCurrentUser().getUserId();
+            tasks.perform(null, () -> {
+                authService.changePassword(userId, old, p1);
+                return null;
+            }, done -> JOptionPane.showMessageDialog(this, "Your password has been changed successfully!", "Success", JOptionPane.INFORMATION_MESSAGE),
+               ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Password Change Failed", JOptionPane.ERROR_MESSAGE));
         }
     }
 
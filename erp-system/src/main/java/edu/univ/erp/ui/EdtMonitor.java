@@ -0,0 +1,126 @@
+package edu.univ.erp.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.InvocationEvent;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * EdtMonitor - Measures how long the Event Dispatch Thread is blocked per event
+ *
+ * Replaces the system event queue with one that times every dispatched event.
+ * Events slower than the stall threshold are printed as [edt-stall] lines with
+ * the event kind and source; a summary (events, stalls, total stalled time,
+ * longest event and a latency distribution) is printed when the JVM exits.
+ *
+ * Enable with -Dui.edtMonitor=true; -Dui.edtStallMs sets the threshold
+ * (default 50 ms, roughly where users notice a frozen window).
+ */
+public final class EdtMonitor extends EventQueue {
+
+    // Upper bounds of the histogram buckets in milliseconds; the last bucket is open
+    private static final long[] BUCKETS_MS = {16, 50, 100, 250, 1000};
+
+    private final long stallNanos;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS_MS.length + 1);
+    private volatile long events;
+    private volatile long stalls;
+    private volatile long stalledNanos;
+    private volatile long maxNanos;
+    private volatile String maxEvent = "-";
+
+    private EdtMonitor(long stallMillis) {
+        this.stallNanos = stallMillis * 1_000_000L;
+    }
+
+    /**
+     * Install the monitor if -Dui.edtMonitor=true. Returns null when disabled.
+     */
+    public static EdtMonitor installIfEnabled() {
+        if (!Boolean.getBoolean("ui.edtMonitor")) {
+            return null;
+        }
+        EdtMonitor monitor = install(Long.getLong("ui.edtStallMs", 50));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(monitor.summary()), "edt-monitor"));
+        return monitor;
+    }
+
+    /** Install a monitor with the given stall threshold */
+    public static EdtMonitor install(long stallMillis) {
+        EdtMonitor monitor = new EdtMonitor(stallMillis);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(monitor);
+        return monitor;
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        long start = System.nanoTime();
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            record(event, System.nanoTime() - start);
+        }
+    }
+
+    // Only called on the EDT, so the plain volatile updates do not race
+    private void record(AWTEvent event, long nanos) {
+        events++;
+        long millis = nanos / 1_000_000L;
+        int bucket = 0;
+        while (bucket < BUCKETS_MS.length && millis >= BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+            maxEvent = describe(event);
+        }
+        if (nanos >= stallNanos) {
+            stalls++;
+            stalledNanos += nanos;
+            System.err.printf("[edt-stall] %d ms in %s%n", millis, describe(event));
+        }
+    }
+
+    private static String describe(AWTEvent event) {
+        Object source = event.getSource();
+        String what = event.getClass().getSimpleName();
+        if (event instanceof ActionEvent && source instanceof AbstractButton button && button.getText() != null) {
+            return what + " on \"" + button.getText() + "\"";
+        }
+        if (event instanceof InvocationEvent) {
+            return what + " (invokeLater/SwingWorker callback)";
+        }
+        return what + " on " + (source == null ? "null" : source.getClass().getSimpleName());
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public long getStalls() {
+        return stalls;
+    }
+
+    public double getStalledMillis() {
+        return stalledNanos / 1e6;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos / 1e6;
+    }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("EDT: %,d events, %,d stalls >= %d ms, %.0f ms stalled, longest %.0f ms (%s)%n",
+                events, stalls, stallNanos / 1_000_000L, getStalledMillis(), getMaxMillis(), maxEvent));
+        sb.append("  dispatch time:");
+        for (int i = 0; i < buckets.length(); i++) {
+            String label = i < BUCKETS_MS.length ? "<" + BUCKETS_MS[i] + "ms" : ">=" + BUCKETS_MS[i - 1] + "ms";
+            sb.append(String.format(" %s=%,d", label, buckets.get(i)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package edu.univ.erp.ui;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * ImageAssets - Decoding and scaling of the bundled images
+ *
+ * Design Decisions:
+ * - Decoding is slow for large files (the login background is a 1.3 MB JPEG),
+ *   so callers run load() on a worker thread, not the EDT
+ * - Every image handed out is in the screen's compatible format, so painting
+ *   it is a plain blit; a decoded JPEG is usually a 3-byte BGR image that Java2D
+ *   would otherwise convert pixel by pixel on every paint
+ * - Downscaling halves the image in bilinear steps until it reaches the target.
+ *   That looks as good as getScaledInstance(SCALE_SMOOTH) at a fraction of the
+ *   cost, and the result is a BufferedImage that is ready to draw
+ */
+public final class ImageAssets {
+
+    private ImageAssets() {
+        // Utility class
+    }
+
+    /**
+     * Decode a classpath image into a compatible image.
+     *
+     * @return the image, or null if it is missing or unreadable
+     */
+    public static BufferedImage load(String path) {
+        URL url = ImageAssets.class.getResource(path);
+        if (url == null) {
+            return null;
+        }
+        try {
+            BufferedImage decoded = ImageIO.read(url);
+            return decoded == null ? null : scale(decoded, decoded.getWidth(), decoded.getHeight());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Copy of the image at the given size, in the screen's compatible format */
+    public static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        // One bilinear pass only samples 2x2 pixels, so larger steps would skip detail
+        while (w / 2 >= width || h / 2 >= height) {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            current = draw(current, w, h);
+        }
+        return draw(current, width, height);
+    }
+
+    /** Largest size that fits in the box without changing the aspect ratio */
+    public static Dimension fit(int width, int height, int maxWidth, int maxHeight) {
+        double scale = Math.min((double) maxWidth / width, (double) maxHeight / height);
+        return new Dimension(Math.max(1, (int) (width * scale)), Math.max(1, (int) (height * scale)));
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = createCompatibleImage(width, height, source.getTransparency());
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB
+                    : BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice()
+                .getDefaultConfiguration()
+                .createCompatibleImage(width, height, transparency);
+    }
+}
@@ -2,13 +2,21 @@ package edu.univ.erp.ui;
 
 import com.formdev.flatlaf.FlatClientProperties;
 import edu.univ.erp.auth.SessionManager;
+import edu.univ.erp.data.SettingsRegistry;
+import edu.univ.erp.domain.GradeSaveResult;
+import edu.univ.erp.domain.GradebookRow;
+import edu.univ.erp.domain.TeachingSection;
+import edu.univ.erp.domain.User;
+import edu.univ.erp.service.GradeImporter;
 import edu.univ.erp.service.InstructorService;
+import edu.univ.erp.service.RosterSort;
+import edu.univ.erp.service.TranscriptService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,10 +27,23 @@ import java.util.Map;
  * - Dedicated Gradebook view with integrated stats
  * - "Bulk Tools" tab for CSV import
  * - Auto-calc averages and validations intact
+ * - Loads and saves run in the background (TaskRunner)
+ * - The gradebook loads and sorts pages on the server as the user scrolls
+ *   (PagedTableModel); edits are kept aside until saved
  */
 public class InstructorPanel extends JPanel {
 
+    // Gradebook rows per round trip and pages kept in memory (at most 1,000 rows)
+    private static final int ROSTER_PAGE_ROWS = 100;
+    private static final int ROSTER_MAX_PAGES = 10;
+
+    // Server-side sort for each gradebook column, in column order
+    private static final RosterSort[] ROSTER_SORTS = {
+            RosterSort.ENROLLMENT_ID, RosterSort.NAME, RosterSort.ROLL_NO, RosterSort.QUIZ,
+            RosterSort.MIDTERM, RosterSort.ENDSEM, RosterSort.FINAL_GRADE};
+
     private final InstructorService instructorService;
+    private final TaskRunner tasks = new TaskRunner(this);
     private final CardLayout contentLayout = new CardLayout();
     private final JPanel contentPanel = new JPanel(contentLayout);
 
@@ -34,8 +55,12 @@ public class InstructorPanel extends JPanel {
     // Gradebook Components
     private JComboBox<String> sectionSelector;
     private JTable gradeTable;
-    private DefaultTableModel tableModel;
-    private List<String> sectionIds = new ArrayList<>();
+    private PagedTableModel<GradebookRow> tableModel;
+    // Unsaved edits by enrollment id; they outlive the pages they were made on
+    private final Map<Integer, GradebookRow> editedRows = new HashMap<>();
+    // Grade weights for the Final Grade column, read with each page on the worker thread
+    private volatile SettingsRegistry.Snapshot weights;
+    private List<Integer> sectionIds = new ArrayList<>();
     private JLabel statsLabel;
 
     public InstructorPanel() {
@@ -75,6 +100,8 @@ public class InstructorPanel extends JPanel {
         sidebar.add(createNavButton("Gradebook", "GRADEBOOK"));
         sidebar.add(Box.createVerticalStrut(5));
         sidebar.add(createNavButton("Bulk Tools", "TOOLS"));
+        sidebar.add(Box.createVerticalStrut(15));
+        sidebar.add(tasks.getBusyIndicator());
 
         return sidebar;
     }
@@ -96,6 +123,7 @@ public class InstructorPanel extends JPanel {
         });
 
         btn.addActionListener(e -> {
+            tasks.cancelLoads();
             contentLayout.show(contentPanel, cardName);
             if (cardName.equals("GRADEBOOK")) loadSections();
         });
@@ -127,28 +155,39 @@ public class InstructorPanel extends JPanel {
         panel.add(topPanel, BorderLayout.NORTH);
 
         // Grade Table
-        String[] cols = {"EnrollID", "Student Name", "Roll No", "Quiz (20)", "Midterm (30)", "EndSem (50)", "Final Grade"};
-        tableModel = new DefaultTableModel(cols, 0) {
+        // Cells show the edited version of a row when there is one
+        tableModel = new PagedTableModel<>("gradebook", List.of(
+                new RecordTableModel.Column<>("EnrollID", Integer.class, GradebookRow::enrollmentId),
+                new RecordTableModel.Column<>("Student Name", String.class, GradebookRow::studentName),
+                new RecordTableModel.Column<>("Roll No", String.class, GradebookRow::rollNo),
+                new RecordTableModel.Column<>("Quiz (20)", Double.class, r -> current(r).quiz()),
+                new RecordTableModel.Column<>("Midterm (30)", Double.class, r -> current(r).midterm()),
+                new RecordTableModel.Column<>("EndSem (50)", Double.class, r -> current(r).endsem()),
+                new RecordTableModel.Column<GradebookRow>("Final Grade", Double.class, r -> {
+                    GradebookRow c = current(r);
+                    return TranscriptService.weightedFinal(weights, c.quiz(), c.midterm(), c.endsem());
+                })),
+                GradebookRow::enrollmentId, tasks, ROSTER_PAGE_ROWS, ROSTER_MAX_PAGES) {
             @Override
             public boolean isCellEditable(int row, int col) {
-                return col >= 3 && col <= 5; // Only grades are editable
+                return col >= 3 && col <= 5 && getRow(row) != null; // Only loaded grades are editable
             }
+
             @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                // EnrollID (0) is Integer, Quiz/Midterm/EndSem (3-5) are Double, Final Grade (6) is Double
-                if (columnIndex == 0) {
-                    return Integer.class;
-                }
-                if (columnIndex >= 3 && columnIndex <= 6) {
-                    return Double.class;
-                }
-                return String.class;
+            public void setValueAt(Object value, int row, int col) {
+                GradebookRow loaded = getRow(row);
+                if (loaded == null || !(value instanceof Number number)) return;
+                GradebookRow r = current(loaded);
+                double score = number.doubleValue();
+                editedRows.put(r.enrollmentId(), new GradebookRow(r.enrollmentId(), r.studentName(), r.rollNo(),
+                        col == 3 ? score : r.quiz(), col == 4 ? score : r.midterm(), col == 5 ? score : r.endsem()));
+                fireTableRowsUpdated(row, row);
             }
         };
-        
+
         gradeTable = new JTable(tableModel);
         gradeTable.setRowHeight(30);
-        gradeTable.setAutoCreateRowSorter(true);
+        gradeTable.setRowSorter(tableModel.createRowSorter()); // Sorted by the database
         
         // Enhanced header styling for easier sorting
         gradeTable.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 12));
@@ -166,7 +205,7 @@ public class InstructorPanel extends JPanel {
         statsLabel.setForeground(new Color(80, 80, 80));
 
         JButton saveBtn = createPrimaryButton("Save All Grades");
-        saveBtn.addActionListener(e -> saveGrades());
+        saveBtn.addActionListener(e -> saveGrades(saveBtn));
 
         bottomPanel.add(statsLabel, BorderLayout.WEST);
         bottomPanel.add(saveBtn, BorderLayout.EAST);
@@ -196,7 +235,8 @@ public class InstructorPanel extends JPanel {
         JTextArea desc = new JTextArea(
             "Upload a CSV file to bulk import grades.\n" +
             "Expected format: EnrollmentID, Quiz, Midterm, EndSem\n" +
-            "This will overwrite existing grades for matching IDs."
+            "This will overwrite existing grades for matching IDs.\n" +
+            "Rows for other instructors' sections are skipped and reported."
         );
         desc.setEditable(false);
         desc.setOpaque(false);
@@ -209,13 +249,11 @@ public class InstructorPanel extends JPanel {
         importBtn.addActionListener(e -> {
             JFileChooser fc = new JFileChooser();
             if (fc.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-                try {
-                    instructorService.importGradesFromCSV(fc.getSelectedFile());
-                    JOptionPane.showMessageDialog(this, "Grades imported successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                User user = SessionManager.getCurrentUser();
+                tasks.perform(importBtn, () -> instructorService.importGradesFromCSV(fc.getSelectedFile(), user), report -> {
+                    showImportReport(report);
                     loadStudentList(); // Refresh table data if we switch back
-                } catch (Exception ex) {
-                    JOptionPane.showMessageDialog(this, ex.getMessage(), "Import Failed", JOptionPane.ERROR_MESSAGE);
-                }
+                }, ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Import Failed", JOptionPane.ERROR_MESSAGE));
             }
         });
         panel.add(importBtn, gbc);
@@ -227,88 +265,138 @@ public class InstructorPanel extends JPanel {
     // --- LOGIC ---
 
     private void loadSections() {
+        User user = SessionManager.getCurrentUser();
+        tasks.load("sections", () -> instructorService.getMySections(user), this::showSections, Exception::printStackTrace);
+    }
+
+    private void showSections(List<TeachingSection> sections) {
         sectionSelector.removeAllItems();
         sectionIds.clear();
-        try {
-            List<Map<String, String>> sections = instructorService.getMySections(SessionManager.getCurrentUser());
-            for (Map<String, String> s : sections) {
-                sectionSelector.addItem(s.get("display"));
-                sectionIds.add(s.get("id"));
-            }
-            if (sectionSelector.getItemCount() > 0) {
-                sectionSelector.setSelectedIndex(0);
-            } else {
-                tableModel.setRowCount(0);
-            }
-        } catch (Exception e) { e.printStackTrace(); }
+        for (TeachingSection s : sections) {
+            sectionSelector.addItem(s.display());
+            sectionIds.add(s.sectionId());
+        }
+        if (sectionSelector.getItemCount() > 0) {
+            sectionSelector.setSelectedIndex(0);
+        } else {
+            editedRows.clear();
+            tableModel.clear();
+        }
     }
 
     private void loadStudentList() {
         int index = sectionSelector.getSelectedIndex();
+        editedRows.clear();
         if (index < 0 || index >= sectionIds.size()) {
-            tableModel.setRowCount(0);
+            tasks.cancel("classStats");
+            tableModel.clear();
             statsLabel.setText("Class Average: N/A");
             return;
         }
 
-        String secId = sectionIds.get(index);
-        tableModel.setRowCount(0);
-
-        try {
-            List<Map<String, Object>> students = instructorService.getClassList(Integer.parseInt(secId), SessionManager.getCurrentUser());
-            double totalFinal = 0.0;
-            int count = 0;
-
-            for (Map<String, Object> s : students) {
-                double quiz = s.containsKey("Quiz") ? (Double) s.get("Quiz") : 0.0;
-                double mid = s.containsKey("Midterm") ? (Double) s.get("Midterm") : 0.0;
-                double end = s.containsKey("EndSem") ? (Double) s.get("EndSem") : 0.0;
-                double finalGrade = (quiz * 0.2) + (mid * 0.3) + (end * 0.5);
-
-                totalFinal += finalGrade;
-                count++;
-
-                tableModel.addRow(new Object[]{
-                        Integer.parseInt(s.get("enrollment_id").toString()), // EnrollID as Integer
-                        s.get("name"),
-                        s.get("roll"),
-                        quiz,
-                        mid,
-                        end,
-                        finalGrade // Final Grade as Double for proper numeric sorting
-                });
+        int secId = sectionIds.get(index);
+        User user = SessionManager.getCurrentUser();
+        statsLabel.setText("Loading...");
+
+        tableModel.setSource(new PagedTableModel.Source<>() {
+            @Override
+            public int count() throws Exception {
+                return instructorService.countClassList(secId, user);
             }
-            
-            if (count > 0) statsLabel.setText(String.format("Class Average: %.2f", totalFinal / count));
+
+            @Override
+            public List<GradebookRow> fetch(int offset, int limit, int sortColumn, boolean ascending) throws Exception {
+                RosterSort sort = sortColumn < 0 ? RosterSort.ROLL_NO : ROSTER_SORTS[sortColumn];
+                List<GradebookRow> rows = instructorService.getClassListRange(secId, user, sort, ascending, offset, limit);
+                weights = instructorService.getGradeWeights();
+                return rows;
+            }
+        });
+        loadClassStats(secId, user);
+    }
+
+    // The average is computed by the database, so it covers rows that are not loaded
+    private void loadClassStats(int secId, User user) {
+        tasks.load("classStats", () -> instructorService.getClassStats(secId, user), stats -> {
+            if (stats.students() > 0) statsLabel.setText(String.format("Class Average: %.2f", stats.averageFinal()));
             else statsLabel.setText("Class Average: 0.00");
+        }, e -> {
+            statsLabel.setText("Class Average: N/A");
+            e.printStackTrace();
+        });
+    }
 
-        } catch (Exception e) { e.printStackTrace(); }
+    // Section id of the selector's current item, or -1 if none is selected
+    private int selectedSectionId() {
+        int index = sectionSelector.getSelectedIndex();
+        return index >= 0 && index < sectionIds.size() ? sectionIds.get(index) : -1;
     }
 
-    private void saveGrades() {
+    private GradebookRow current(GradebookRow loaded) {
+        return editedRows.getOrDefault(loaded.enrollmentId(), loaded);
+    }
+
+    private void saveGrades(JButton saveBtn) {
         if (gradeTable.isEditing()) gradeTable.getCellEditor().stopCellEditing();
 
-        try {
-            for (int i = 0; i < tableModel.getRowCount(); i++) {
-                int enrollId = Integer.parseInt(tableModel.getValueAt(i, 0).toString());
-                double quiz = Double.parseDouble(tableModel.getValueAt(i, 3).toString());
-                double midterm = Double.parseDouble(tableModel.getValueAt(i, 4).toString());
-                double endsem = Double.parseDouble(tableModel.getValueAt(i, 5).toString());
+        int index = sectionSelector.getSelectedIndex();
+        if (index < 0 || index >= sectionIds.size()) return;
 
-                if (quiz < 0 || midterm < 0 || endsem < 0) throw new Exception("Scores cannot be negative.");
-                if (quiz > 20 || midterm > 30 || endsem > 50) throw new Exception("Score exceeds limits (20/30/50).");
+        // Only edited rows are sent; the rest of the class may not even be loaded
+        List<GradebookRow> rows = new ArrayList<>(editedRows.values());
+        if (rows.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "There are no changed grades to save.", "Nothing to Save", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
 
-                instructorService.saveGrade(enrollId, "Quiz", quiz);
-                instructorService.saveGrade(enrollId, "Midterm", midterm);
-                instructorService.saveGrade(enrollId, "EndSem", endsem);
+        int secId = sectionIds.get(index);
+        User user = SessionManager.getCurrentUser();
+        tasks.perform(saveBtn, () -> instructorService.saveGradebook(secId, user, rows), results -> {
+            StringBuilder rejected = new StringBuilder();
+            int saved = 0;
+            for (GradeSaveResult r : results) {
+                if (r.saved()) {
+                    saved++;
+                    editedRows.remove(r.enrollmentId());
+                } else {
+                    rejected.append("Enrollment ").append(r.enrollmentId()).append(": ").append(r.message()).append("\n");
+                }
+            }
+            if (rejected.length() == 0) {
+                JOptionPane.showMessageDialog(this, "All grades have been saved successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Saved " + saved + " of " + results.size() + " rows. Not saved:\n" + rejected,
+                        "Partially Saved", JOptionPane.WARNING_MESSAGE);
             }
-            JOptionPane.showMessageDialog(this, "All grades have been saved successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadStudentList();
-        } catch (NumberFormatException nfe) {
-            JOptionPane.showMessageDialog(this, "Please enter valid numbers in all grade fields.", "Invalid Input", JOptionPane.ERROR_MESSAGE);
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Save Failed", JOptionPane.ERROR_MESSAGE);
+            // Rejected rows stay edited so they can be corrected. If another section was
+            // picked meanwhile, its own load already shows current rows and stats.
+            if (selectedSectionId() == secId) {
+                tableModel.refresh();
+                loadClassStats(secId, user);
+            }
+        }, e -> JOptionPane.showMessageDialog(this, e.getMessage(), "Save Failed", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showImportReport(GradeImporter.Report report) {
+        String summary = String.format("Imported %d row(s) in %.1f s (%.0f rows/s).",
+                report.imported(), report.elapsedMillis() / 1000.0, report.rowsPerSecond());
+        if (report.rejected() == 0) {
+            JOptionPane.showMessageDialog(this, summary, "Import Complete", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder(summary)
+                .append("\n").append(report.rejected()).append(" row(s) were skipped:\n");
+        for (GradeImporter.RowError error : report.errors()) {
+            sb.append("Line ").append(error.line()).append(": ").append(error.message()).append("\n");
         }
+        if (report.rejected() > report.errors().size()) {
+            sb.append("... and ").append(report.rejected() - report.errors().size()).append(" more\n");
+        }
+
+        JTextArea area = new JTextArea(sb.toString(), 15, 60);
+        area.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(area), "Import Finished With Errors", JOptionPane.WARNING_MESSAGE);
     }
 
     private JButton createPrimaryButton(String text) {
@@ -3,15 +3,16 @@ package edu.univ.erp.ui;
 import com.formdev.flatlaf.FlatClientProperties;
 import edu.univ.erp.auth.AuthService;
 import edu.univ.erp.auth.SessionManager;
+import edu.univ.erp.data.DatabaseFactory;
 import edu.univ.erp.domain.User;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.IOException;
-import java.net.URL;
+import java.awt.image.BufferedImage;
 
 /**
  * LoginScreen - Modern UI design for the University ERP system.
@@ -22,16 +23,24 @@ import java.net.URL;
  * - Modern typography (Segoe UI)
  * - FlatLaf styling for input fields (placeholders, reveal button)
  * - Custom painted gradient/image background
+ * - Images are decoded in the background (ImageAssets); the window shows the
+ *   gradient until the photo is ready, and the photo is rescaled once per resize
  */
 public class LoginScreen extends JFrame {
 
     private final AuthService authService;
+    private final TaskRunner tasks = new TaskRunner(getRootPane());
     private JTextField userField;
     private JPasswordField passField;
+    private JButton loginBtn;
 
     // Asset paths - make sure these exist in src/main/resources/images/
     private static final String BG_IMAGE_PATH = "/images/bg.jpeg"; 
     private static final String LOGO_IMAGE_PATH = "/images/logo2.png";
+    private static final int LOGO_MAX_SIZE = 120;
+
+    // Quiet period after the last resize event before the background is rescaled
+    private static final int RESCALE_DELAY_MS = 150;
     
     // Colors from the screenshot
     private static final Color PRIMARY_COLOR = new Color(108, 92, 231); // Purple-ish login button
@@ -119,7 +128,7 @@ public class LoginScreen extends JFrame {
         fieldsPanel.add(passField);
 
         // 4. Login Button
-        JButton loginBtn = new JButton("Login");
+        loginBtn = new JButton("Login");
         loginBtn.setFont(new Font("Segoe UI", Font.BOLD, 14));
         loginBtn.setBackground(PRIMARY_COLOR);
         loginBtn.setForeground(Color.WHITE);
@@ -159,71 +168,93 @@ public class LoginScreen extends JFrame {
             return;
         }
 
-        try {
-            // Using the existing AuthService logic
-            User user = authService.login(username, password);
+        // Pools may still be warming up and BCrypt is slow: keep both off the EDT
+        if (!DatabaseFactory.isReady()) {
+            loginBtn.setText("Connecting...");
+        }
+
+        tasks.perform(loginBtn, () -> {
+            DatabaseFactory.awaitReady();
+            return authService.login(username, password);
+        }, user -> {
+            loginBtn.setText("Login");
             if (user != null) {
                 SessionManager.login(user);
                 dispose();
                 new DashboardScreen().setVisible(true);
             }
-        } catch (Exception ex) {
+        }, ex -> {
+            loginBtn.setText("Login");
             JOptionPane.showMessageDialog(this, ex.getMessage(), "Login Failed", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
-    // Helper to load logo safely with aspect ratio preservation
+    // Decode and scale the logo in the background, preserving its aspect ratio
     private void loadLogo(JLabel label) {
-        URL imgUrl = getClass().getResource(LOGO_IMAGE_PATH);
-        if (imgUrl != null) {
-            ImageIcon icon = new ImageIcon(imgUrl);
-            Image img = icon.getImage();
-            
-            // Preserve aspect ratio while scaling to fit max dimensions
-            int maxWidth = 120;
-            int maxHeight = 120;
-            int originalWidth = img.getWidth(null);
-            int originalHeight = img.getHeight(null);
-            
-            double widthRatio = (double) maxWidth / originalWidth;
-            double heightRatio = (double) maxHeight / originalHeight;
-            double scale = Math.min(widthRatio, heightRatio);
-            
-            int scaledWidth = (int) (originalWidth * scale);
-            int scaledHeight = (int) (originalHeight * scale);
-            
-            Image scaledImg = img.getScaledInstance(scaledWidth, scaledHeight, Image.SCALE_SMOOTH);
-            label.setIcon(new ImageIcon(scaledImg));
-        } else {
-            // Fallback text if image missing
-            label.setText("<html><h1>IIITD</h1></html>");
-            label.setForeground(PRIMARY_COLOR);
-        }
+        tasks.loadQuietly("logo", () -> {
+            BufferedImage logo = ImageAssets.load(LOGO_IMAGE_PATH);
+            if (logo == null) {
+                return null;
+            }
+            Dimension size = ImageAssets.fit(logo.getWidth(), logo.getHeight(), LOGO_MAX_SIZE, LOGO_MAX_SIZE);
+            return ImageAssets.scale(logo, size.width, size.height);
+        }, logo -> {
+            if (logo != null) {
+                label.setIcon(new ImageIcon(logo));
+            } else {
+                // Fallback text if image missing
+                label.setText("<html><h1>IIITD</h1></html>");
+                label.setForeground(PRIMARY_COLOR);
+            }
+        }, e -> e.printStackTrace());
     }
 
     // Custom Panel to paint the background image
     private class BackgroundPanel extends JPanel {
-        private Image backgroundImage;
+        // Decoded photo, and a copy scaled to the panel size that paint just blits
+        private BufferedImage backgroundImage;
+        private BufferedImage scaledImage;
+        private final Timer rescaleTimer = new Timer(RESCALE_DELAY_MS, e -> rescale());
 
         public BackgroundPanel() {
-            try {
-                URL imgUrl = getClass().getResource(BG_IMAGE_PATH);
-                if (imgUrl != null) {
-                    backgroundImage = ImageIO.read(imgUrl);
+            rescaleTimer.setRepeats(false);
+            // During a drag-resize the old copy is stretched; the sharp one follows once resizing pauses
+            addComponentListener(new ComponentAdapter() {
+                @Override
+                public void componentResized(ComponentEvent e) {
+                    rescaleTimer.restart();
                 }
-            } catch (IOException e) {
-                // Ignore, will just use color
+            });
+            tasks.loadQuietly("background", () -> ImageAssets.load(BG_IMAGE_PATH), image -> {
+                backgroundImage = image;
+                rescale();
+            }, e -> e.printStackTrace()); // Keep the gradient
+        }
+
+        private void rescale() {
+            BufferedImage source = backgroundImage;
+            int width = getWidth();
+            int height = getHeight();
+            if (source == null || width <= 0 || height <= 0) {
+                return;
             }
+            tasks.loadQuietly("backgroundScale", () -> ImageAssets.scale(source, width, height), image -> {
+                scaledImage = image;
+                repaint();
+            }, e -> e.printStackTrace());
         }
 
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            if (backgroundImage != null) {
-                // Draw image scaled to fill the window
-                g.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
+            if (scaledImage != null) {
+                if (scaledImage.getWidth() == getWidth() && scaledImage.getHeight() == getHeight()) {
+                    g.drawImage(scaledImage, 0, 0, null);
+                } else {
+                    g.drawImage(scaledImage, 0, 0, getWidth(), getHeight(), null);
+                }
             } else {
-                // Fallback gradient if no image
+                // Gradient until the image is ready, or if it is missing
                 Graphics2D g2d = (Graphics2D) g;
                 GradientPaint gp = new GradientPaint(0, 0, new Color(100, 149, 237), 
                         getWidth(), getHeight(), new Color(255, 255, 255));
@@ -0,0 +1,410 @@
+package edu.univ.erp.ui;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * PagedTableModel - Table model that loads rows page by page as they are shown
+ *
+ * Design Decisions:
+ * - Only the row count is loaded up front. getValueAt for a row that is not in
+ *   memory returns null (an empty cell) and requests its page in the background
+ *   through the panel's TaskRunner; the cells are repainted when it arrives.
+ * - At most maxPages pages are kept, least recently used first out, so memory
+ *   stays flat however far the user scrolls.
+ * - At most MAX_IN_FLIGHT page loads are pending; older ones are dropped when
+ *   the user scrolls past them quickly.
+ * - Sorting is done by the database: install createRowSorter() on the table and
+ *   a header click reloads the pages in the new order (a client-side sorter
+ *   would only sort the rows in memory).
+ * - Scrolling on from a full, current page asks the source for the rows after
+ *   its last row (a keyset seek, see Source.fetchAfter); jumps further down and
+ *   sources that cannot seek in the current order use fetch's OFFSET.
+ * - refresh() (e.g. after a registration) keeps showing the loaded rows and
+ *   compares each refetched page with the old one by row key, so only changed
+ *   cells are repainted and the selection and scroll position stay put. Row
+ *   indices are positions in the server's order and pages are refetched one at
+ *   a time, so a row that entered or left earlier in the order cannot be fired
+ *   as an insert or delete (the pages after it are not reloaded yet); each
+ *   position whose row key changed is repainted as a whole row instead.
+ *
+ * Like other Swing models it must only be used on the EDT.
+ */
+public class PagedTableModel<T> extends AbstractTableModel {
+
+    /** Where the rows come from; both methods run on a worker thread */
+    public interface Source<T> {
+        int count() throws Exception;
+
+        /**
+         * @param sortColumn model column to order by, or -1 for the source's default order
+         */
+        List<T> fetch(int offset, int limit, int sortColumn, boolean ascending) throws Exception;
+
+        /**
+         * The limit rows that follow last in the given order, or null if the
+         * source cannot seek in that order (fetch is used instead).
+         */
+        default List<T> fetchAfter(T last, int limit, int sortColumn, boolean ascending) throws Exception {
+            return null;
+        }
+    }
+
+    private static final int MAX_IN_FLIGHT = 4;
+
+    private final String name;
+    private final List<RecordTableModel.Column<T>> columns;
+    private final Function<T, ?> key;
+    private final TaskRunner tasks;
+    private final int pageSize;
+    private final int maxPages;
+
+    private Source<T> source;
+    private int rowCount;
+    private int sortColumn = -1;
+    private boolean ascending = true;
+
+    // Loaded pages in access order (eldest first)
+    private final LinkedHashMap<Integer, List<T>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+            return size() > maxPages;
+        }
+    };
+    // Loaded pages that are shown until their refetch after refresh() arrives
+    private final Set<Integer> stale = new HashSet<>();
+    private final Deque<Integer> inFlight = new ArrayDeque<>();
+    private ServerRowSorter sorter;
+
+    /**
+     * @param name     prefix for the background task keys, unique per runner
+     * @param key      identifies a row across refreshes (e.g. the section id)
+     * @param pageSize rows per database round trip
+     * @param maxPages pages kept in memory
+     */
+    public PagedTableModel(String name, List<RecordTableModel.Column<T>> columns, Function<T, ?> key,
+                           TaskRunner tasks, int pageSize, int maxPages) {
+        this.name = name;
+        this.columns = List.copyOf(columns);
+        this.key = key;
+        this.tasks = tasks;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+    }
+
+    /** Show a new data set (e.g. after the filters changed); null shows an empty table */
+    public void setSource(Source<T> newSource) {
+        this.source = newSource;
+        dropPages();
+        if (source == null) {
+            tasks.cancel(name + ":count");
+            setRowCount(0);
+            return;
+        }
+        Source<T> current = source;
+        tasks.load(name + ":count", current::count, this::setRowCount, e -> {
+            setRowCount(0);
+            e.printStackTrace();
+        });
+    }
+
+    /**
+     * Re-read the same data set after it changed. The loaded rows stay on screen;
+     * the most recently shown pages are refetched now and the others when they
+     * are shown again. Only rows and cells that differ fire table events.
+     */
+    public void refresh() {
+        if (source == null) return;
+        cancelPageLoads();
+        stale.addAll(pages.keySet());
+        List<Integer> recent = new ArrayList<>(pages.keySet()); // Eldest first
+        for (int i = recent.size() - 1; i >= 0 && i >= recent.size() - MAX_IN_FLIGHT; i--) {
+            requestPage(recent.get(i));
+        }
+
+        Source<T> current = source;
+        tasks.load(name + ":count", current::count, this::resizeTo, Throwable::printStackTrace);
+    }
+
+    public void clear() {
+        setSource(null);
+    }
+
+    /**
+     * Apply a change to the rows in memory (e.g. seat counts from a poll) without
+     * a round trip. Only cells whose value changed fire events. The rows keep their
+     * position even if the change affects the sort order.
+     */
+    public void updateLoadedRows(UnaryOperator<T> update) {
+        // Events are fired after the loop: a listener reading a cell would reorder the LRU map
+        List<Integer> changedRows = new ArrayList<>();
+        List<T> before = new ArrayList<>();
+        for (Map.Entry<Integer, List<T>> entry : pages.entrySet()) {
+            List<T> page = entry.getValue();
+            List<T> updated = null;
+            for (int i = 0; i < page.size(); i++) {
+                T row = page.get(i);
+                T after = update.apply(row);
+                if (after == row || after.equals(row)) continue;
+                if (updated == null) {
+                    updated = new ArrayList<>(page);
+                    entry.setValue(updated); // Not an access, so the LRU order is unchanged
+                }
+                updated.set(i, after);
+                changedRows.add(entry.getKey() * pageSize + i);
+                before.add(row);
+            }
+        }
+        for (int i = 0; i < changedRows.size(); i++) {
+            int row = changedRows.get(i);
+            if (row < rowCount) {
+                RecordTableModel.fireRowChanges(this, columns, row, before.get(i), getRow(row));
+            }
+        }
+    }
+
+    /** Order by a model column on the server; -1 restores the source's default order */
+    public void sortBy(int column, boolean ascendingOrder) {
+        this.sortColumn = column;
+        this.ascending = ascendingOrder;
+        dropPages();
+        if (sorter != null) {
+            sorter.sortChanged();
+        }
+    }
+
+    /** Row object at a model index, or null if its page is not loaded yet */
+    public T getRow(int modelRow) {
+        List<T> page = pages.get(modelRow / pageSize);
+        int index = modelRow % pageSize;
+        return page != null && index < page.size() ? page.get(index) : null;
+    }
+
+    /**
+     * Row sorter that forwards header clicks to sortBy. Rows keep their model
+     * order in the view; the database already returns them sorted.
+     */
+    public RowSorter<PagedTableModel<T>> createRowSorter() {
+        sorter = new ServerRowSorter();
+        return sorter;
+    }
+
+    private void setRowCount(int count) {
+        rowCount = count;
+        fireTableDataChanged();
+    }
+
+    // Grow or shrink at the end; rows that shifted show up in their page diffs
+    private void resizeTo(int count) {
+        int old = rowCount;
+        rowCount = count;
+        if (count > old) {
+            fireTableRowsInserted(old, count - 1);
+        } else if (count < old) {
+            fireTableRowsDeleted(count, old - 1);
+        }
+    }
+
+    private void requestPage(int pageIndex) {
+        String taskKey = pageKey(pageIndex);
+        if (source == null || tasks.isLoading(taskKey)) {
+            return;
+        }
+        inFlight.remove(pageIndex); // Left over from a load dropped by TaskRunner.cancelLoads
+        while (inFlight.size() >= MAX_IN_FLIGHT) {
+            tasks.cancel(pageKey(inFlight.removeFirst()));
+        }
+        inFlight.addLast(pageIndex);
+
+        Source<T> current = source;
+        int column = sortColumn;
+        boolean asc = ascending;
+        T seekFrom = lastRowBefore(pageIndex);
+        tasks.load(taskKey, () -> {
+            List<T> rows = seekFrom == null ? null : current.fetchAfter(seekFrom, pageSize, column, asc);
+            return rows != null ? rows : current.fetch(pageIndex * pageSize, pageSize, column, asc);
+        }, rows -> {
+            inFlight.remove(pageIndex);
+            stale.remove(pageIndex);
+            List<T> old = pages.put(pageIndex, rows);
+            int first = pageIndex * pageSize;
+            if (old == null) {
+                int last = Math.min(rowCount, first + pageSize) - 1;
+                if (last >= first) {
+                    fireTableRowsUpdated(first, last);
+                }
+                return;
+            }
+            for (int i = 0; i < pageSize && first + i < rowCount; i++) {
+                T before = i < old.size() ? old.get(i) : null;
+                T after = i < rows.size() ? rows.get(i) : null;
+                if (before != null && after != null && Objects.equals(key.apply(before), key.apply(after))) {
+                    RecordTableModel.fireRowChanges(this, columns, first + i, before, after);
+                } else if (before != after) {
+                    // Another row (or none) now sits at this position
+                    fireTableRowsUpdated(first + i, first + i);
+                }
+            }
+        }, e -> {
+            inFlight.remove(pageIndex);
+            stale.remove(pageIndex); // Keep showing the old rows rather than retrying on every repaint
+            e.printStackTrace();
+        });
+    }
+
+    // Last row of the previous page if a seek from it lands exactly on this page
+    private T lastRowBefore(int pageIndex) {
+        if (pageIndex == 0 || stale.contains(pageIndex - 1)) {
+            return null;
+        }
+        // Looked up without get() so the LRU order is unchanged
+        for (Map.Entry<Integer, List<T>> entry : pages.entrySet()) {
+            if (entry.getKey() == pageIndex - 1) {
+                List<T> previous = entry.getValue();
+                return previous.size() == pageSize ? previous.get(pageSize - 1) : null;
+            }
+        }
+        return null;
+    }
+
+    // Forget every page; the repaint requests the visible ones again
+    private void dropPages() {
+        cancelPageLoads();
+        pages.clear();
+        stale.clear();
+        if (rowCount > 0) {
+            fireTableRowsUpdated(0, rowCount - 1);
+        }
+    }
+
+    private void cancelPageLoads() {
+        while (!inFlight.isEmpty()) {
+            tasks.cancel(pageKey(inFlight.removeFirst()));
+        }
+    }
+
+    private String pageKey(int pageIndex) {
+        return name + ":page:" + pageIndex;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns.get(column).name();
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columns.get(column).type();
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        T value = getRow(row);
+        if (value == null || stale.contains(row / pageSize)) {
+            requestPage(row / pageSize);
+        }
+        return value == null ? null : columns.get(column).getter().apply(value);
+    }
+
+    // Identity row mapping; only the sort keys are tracked here
+    private class ServerRowSorter extends RowSorter<PagedTableModel<T>> {
+
+        @Override
+        public PagedTableModel<T> getModel() {
+            return PagedTableModel.this;
+        }
+
+        @Override
+        public void toggleSortOrder(int column) {
+            boolean asc = column != sortColumn || !ascending;
+            sortBy(column, asc);
+        }
+
+        void sortChanged() {
+            fireSortOrderChanged();
+            fireRowSorterChanged(null);
+        }
+
+        @Override
+        public int convertRowIndexToModel(int index) {
+            return index;
+        }
+
+        @Override
+        public int convertRowIndexToView(int index) {
+            return index;
+        }
+
+        @Override
+        public void setSortKeys(List<? extends SortKey> keys) {
+            if (keys == null || keys.isEmpty()) {
+                sortBy(-1, true);
+            } else {
+                SortKey key = keys.get(0);
+                sortBy(key.getColumn(), key.getSortOrder() != SortOrder.DESCENDING);
+            }
+        }
+
+        @Override
+        public List<? extends SortKey> getSortKeys() {
+            return sortColumn < 0
+                    ? List.of()
+                    : List.of(new SortKey(sortColumn, ascending ? SortOrder.ASCENDING : SortOrder.DESCENDING));
+        }
+
+        @Override
+        public int getViewRowCount() {
+            return rowCount;
+        }
+
+        @Override
+        public int getModelRowCount() {
+            return rowCount;
+        }
+
+        @Override
+        public void modelStructureChanged() {
+        }
+
+        @Override
+        public void allRowsChanged() {
+        }
+
+        @Override
+        public void rowsInserted(int firstRow, int endRow) {
+        }
+
+        @Override
+        public void rowsDeleted(int firstRow, int endRow) {
+        }
+
+        @Override
+        public void rowsUpdated(int firstRow, int endRow) {
+        }
+
+        @Override
+        public void rowsUpdated(int firstRow, int endRow, int column) {
+        }
+    }
+}
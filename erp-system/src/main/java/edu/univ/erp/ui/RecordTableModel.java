@@ -0,0 +1,155 @@
+package edu.univ.erp.ui;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * RecordTableModel - Read-only table model backed directly by a list of records
+ *
+ * Cells are read from the row objects through per-column getters, so no
+ * Object[] copy of each row is kept alongside the service data.
+ *
+ * With a row key (e.g. the section id), setRows compares the new rows with the
+ * current ones and fires only the inserts, deletes and changed cells, so a
+ * refresh keeps the selection and scroll position and repaints only what changed.
+ */
+public class RecordTableModel<T> extends AbstractTableModel {
+
+    /** One table column: header text, value class (for sorting) and getter */
+    public record Column<T>(String name, Class<?> type, Function<T, ?> getter) {}
+
+    private final List<Column<T>> columns;
+    private final Function<T, ?> key;
+    private final List<T> rows = new ArrayList<>();
+
+    public RecordTableModel(List<Column<T>> columns) {
+        this(columns, null);
+    }
+
+    /**
+     * @param key identifies a row across refreshes; null replaces all rows on every setRows
+     */
+    public RecordTableModel(List<Column<T>> columns, Function<T, ?> key) {
+        this.columns = List.copyOf(columns);
+        this.key = key;
+    }
+
+    /** Replace all rows, firing only the changes when the model has a row key */
+    public void setRows(List<T> newRows) {
+        Set<Object> newKeys = new HashSet<>();
+        if (key != null) {
+            for (T row : newRows) {
+                newKeys.add(key.apply(row));
+            }
+        }
+        // Without a key, or with duplicate keys, there is nothing reliable to match on
+        if (key == null || rows.isEmpty() || newRows.isEmpty() || newKeys.size() != newRows.size()) {
+            rows.clear();
+            rows.addAll(newRows);
+            fireTableDataChanged();
+            return;
+        }
+
+        // Delete rows that are gone, bottom up so the indices stay valid
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            if (newKeys.contains(key.apply(rows.get(i)))) continue;
+            int last = i;
+            while (i > 0 && !newKeys.contains(key.apply(rows.get(i - 1)))) i--;
+            rows.subList(i, last + 1).clear();
+            fireTableRowsDeleted(i, last);
+        }
+
+        // Walk the new order: update matching rows in place, insert new ones,
+        // and move a row that comes earlier than before (delete + insert)
+        Set<Object> oldKeys = new HashSet<>();
+        for (T row : rows) {
+            oldKeys.add(key.apply(row));
+        }
+        for (int i = 0; i < newRows.size(); i++) {
+            T next = newRows.get(i);
+            Object k = key.apply(next);
+            if (i < rows.size() && Objects.equals(key.apply(rows.get(i)), k)) {
+                fireRowChanges(this, columns, i, rows.set(i, next), next);
+            } else if (oldKeys.contains(k)) {
+                int from = indexOfKey(k, i + 1);
+                rows.remove(from);
+                fireTableRowsDeleted(from, from);
+                rows.add(i, next);
+                fireTableRowsInserted(i, i);
+            } else {
+                int end = i + 1;
+                while (end < newRows.size() && !oldKeys.contains(key.apply(newRows.get(end)))) end++;
+                rows.addAll(i, newRows.subList(i, end));
+                fireTableRowsInserted(i, end - 1);
+                i = end - 1;
+            }
+        }
+    }
+
+    public void clear() {
+        setRows(List.of());
+    }
+
+    /** Row object at a model index (use JTable.convertRowIndexToModel first) */
+    public T getRow(int modelRow) {
+        return rows.get(modelRow);
+    }
+
+    private int indexOfKey(Object k, int from) {
+        for (int i = from; i < rows.size(); i++) {
+            if (Objects.equals(key.apply(rows.get(i)), k)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Fire the events for a row whose content may have changed in place: nothing
+     * if it is equal, one cell if only one column differs, else the whole row.
+     */
+    static <T> void fireRowChanges(AbstractTableModel model, List<Column<T>> columns, int row, T before, T after) {
+        if (Objects.equals(before, after)) return;
+        int changed = -1;
+        for (int c = 0; c < columns.size(); c++) {
+            Function<T, ?> getter = columns.get(c).getter();
+            if (Objects.equals(getter.apply(before), getter.apply(after))) continue;
+            if (changed >= 0) {
+                model.fireTableRowsUpdated(row, row);
+                return;
+            }
+            changed = c;
+        }
+        if (changed >= 0) {
+            model.fireTableCellUpdated(row, changed);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns.get(column).name();
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columns.get(column).type();
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return columns.get(column).getter().apply(rows.get(row));
+    }
+}
@@ -2,15 +2,25 @@ package edu.univ.erp.ui;
 
 import com.formdev.flatlaf.FlatClientProperties;
 import edu.univ.erp.auth.SessionManager;
+import edu.univ.erp.domain.CatalogEntry;
+import edu.univ.erp.domain.Enrollment;
+import edu.univ.erp.domain.SeatCount;
+import edu.univ.erp.domain.TranscriptRow;
 import edu.univ.erp.domain.User;
+import edu.univ.erp.service.CatalogQuery;
+import edu.univ.erp.service.CatalogSort;
+import edu.univ.erp.service.SeatChanges;
 import edu.univ.erp.service.StudentService;
+import edu.univ.erp.service.TranscriptService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.AncestorEvent;
+import javax.swing.event.AncestorListener;
 import java.awt.*;
 import java.io.File;
 import java.io.PrintWriter;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,10 +31,33 @@ import java.util.Map;
  * - Left Sidebar Navigation
  * - Dedicated "Academic Record" tab for transcripts
  * - Modern tables with sorting
+ * - Data loads in the background (TaskRunner); switching tabs drops stale loads
+ * - The catalog table loads and sorts pages on the server as the user scrolls (PagedTableModel);
+ *   in section order the next page is a keyset seek from the last loaded section
+ * - Refreshes after register/drop update the tables in place (keyed by section),
+ *   keeping the selection and scroll position
+ * - While the catalog is shown, seat counts changed by other students are polled
+ *   every SEAT_POLL_MS and patched into the loaded rows (backing off while polls fail)
  */
 public class StudentPanel extends JPanel {
 
+    // Catalog rows per round trip (getCatalogPage's fixed size, so scrolling can
+    // seek by section id) and pages kept in memory (at most 1,000 rows)
+    private static final int CATALOG_PAGE_ROWS = StudentService.CATALOG_PAGE_SIZE;
+    private static final int CATALOG_MAX_PAGES = 20;
+
+    // Sort applied by StudentService for each catalog column, in column order
+    private static final CatalogSort[] CATALOG_SORTS = {
+            CatalogSort.SECTION_ID, CatalogSort.CODE, CatalogSort.TITLE, CatalogSort.CREDITS,
+            CatalogSort.INSTRUCTOR, CatalogSort.SCHEDULE, CatalogSort.SEATS_AVAILABLE};
+
+    // Seat counts in the open catalog are at most this stale
+    private static final int SEAT_POLL_MS = 500;
+    // Longest gap between polls while they keep failing (e.g. database down)
+    private static final int SEAT_POLL_MAX_MS = 30_000;
+
     private final StudentService studentService;
+    private final TaskRunner tasks = new TaskRunner(this);
     private final CardLayout contentLayout = new CardLayout();
     private final JPanel contentPanel = new JPanel(contentLayout);
     
@@ -34,9 +67,19 @@ public class StudentPanel extends JPanel {
     private final Color ACCENT_COLOR = new Color(100, 150, 255);
 
     // Data Models
-    private DefaultTableModel catalogModel;
-    private DefaultTableModel myModel;
-    private DefaultTableModel transcriptModel;
+    private PagedTableModel<CatalogEntry> catalogModel;
+    private RecordTableModel<Enrollment> myModel;
+    private RecordTableModel<TranscriptRow> transcriptModel;
+
+    // Catalog filters
+    private JTextField codeFilter;
+    private JTextField instructorFilter;
+    private JComboBox<String> creditsFilter;
+    private JCheckBox openSeatsOnly;
+    private JLabel catalogCount;
+
+    private final Timer seatPoll = new Timer(SEAT_POLL_MS, e -> pollSeats());
+    private long seatCursor;
 
     public StudentPanel() {
         this.studentService = new StudentService();
@@ -79,6 +122,8 @@ public class StudentPanel extends JPanel {
         sidebar.add(createNavButton("My Registrations", "MY_SECTIONS"));
         sidebar.add(Box.createVerticalStrut(5));
         sidebar.add(createNavButton("Academic Record", "TRANSCRIPT"));
+        sidebar.add(Box.createVerticalStrut(15));
+        sidebar.add(tasks.getBusyIndicator());
 
         return sidebar;
     }
@@ -100,8 +145,9 @@ public class StudentPanel extends JPanel {
         });
 
         btn.addActionListener(e -> {
+            tasks.cancelLoads();
             contentLayout.show(contentPanel, cardName);
-            if (cardName.equals("CATALOG")) refreshCatalog();
+            if (cardName.equals("CATALOG")) catalogModel.refresh();
             if (cardName.equals("MY_SECTIONS")) refreshMyData();
             if (cardName.equals("TRANSCRIPT")) refreshTranscript();
         });
@@ -115,28 +161,47 @@ public class StudentPanel extends JPanel {
         panel.putClientProperty(FlatClientProperties.STYLE, "arc: 15");
         panel.setBorder(new EmptyBorder(20, 20, 20, 20));
 
-        JLabel header = new JLabel("Available Courses");
-        header.setFont(new Font("Segoe UI", Font.BOLD, 18));
-        header.setBorder(new EmptyBorder(0, 0, 15, 0));
-        panel.add(header, BorderLayout.NORTH);
+        // Poll seat changes only while the catalog is on screen (card shown, window open)
+        panel.addAncestorListener(new AncestorListener() {
+            @Override
+            public void ancestorAdded(AncestorEvent event) {
+                seatCursor = 0;
+                seatPoll.start();
+            }
 
-        String[] cols = {"ID", "Code", "Title", "Credits", "Instructor", "Schedule", "Seats"};
-        catalogModel = new DefaultTableModel(cols, 0) {
             @Override
-            public boolean isCellEditable(int row, int column) { return false; }
-            
+            public void ancestorRemoved(AncestorEvent event) {
+                seatPoll.stop();
+                tasks.cancel("seats");
+            }
+
             @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                // ID (0) and Credits (3) are numeric
-                // Seats (6) is String format "X / Y"
-                if (columnIndex == 0 || columnIndex == 3) {
-                    return Integer.class;
-                }
-                return String.class;
+            public void ancestorMoved(AncestorEvent event) {
             }
-        };
+        });
+
+        JLabel header = new JLabel("Available Courses");
+        header.setFont(new Font("Segoe UI", Font.BOLD, 18));
+        header.setBorder(new EmptyBorder(0, 0, 15, 0));
+
+        JPanel northPanel = new JPanel(new BorderLayout());
+        northPanel.setOpaque(false);
+        northPanel.add(header, BorderLayout.NORTH);
+        northPanel.add(createCatalogFilterBar(), BorderLayout.CENTER);
+        panel.add(northPanel, BorderLayout.NORTH);
+
+        // ID and Credits are numeric; Seats is "available / capacity"
+        catalogModel = new PagedTableModel<>("catalog", List.of(
+                new RecordTableModel.Column<>("ID", Integer.class, CatalogEntry::sectionId),
+                new RecordTableModel.Column<>("Code", String.class, CatalogEntry::courseCode),
+                new RecordTableModel.Column<>("Title", String.class, CatalogEntry::title),
+                new RecordTableModel.Column<>("Credits", Integer.class, CatalogEntry::credits),
+                new RecordTableModel.Column<>("Instructor", String.class, CatalogEntry::instructor),
+                new RecordTableModel.Column<>("Schedule", String.class, CatalogEntry::schedule),
+                new RecordTableModel.Column<>("Seats", String.class, CatalogEntry::seatsText)),
+                CatalogEntry::sectionId, tasks, CATALOG_PAGE_ROWS, CATALOG_MAX_PAGES);
         JTable table = new JTable(catalogModel);
-        table.setAutoCreateRowSorter(true);
+        table.setRowSorter(catalogModel.createRowSorter()); // Sorted by the database
         table.setRowHeight(30);
         
         // Enhanced header styling for easier sorting
@@ -155,27 +220,70 @@ public class StudentPanel extends JPanel {
             }
             // Convert view index to model index (handling sorts)
             int modelRow = table.convertRowIndexToModel(row);
-            String secId = String.valueOf(catalogModel.getValueAt(modelRow, 0));
-
-            try {
-                studentService.register(getCurrentUser(), Integer.parseInt(secId));
+            CatalogEntry entry = catalogModel.getRow(modelRow);
+            if (entry == null) return; // Row still loading
+            int secId = entry.sectionId();
+            User user = getCurrentUser();
+
+            tasks.perform(regBtn, () -> {
+                studentService.register(user, secId);
+                return null;
+            }, done -> {
                 JOptionPane.showMessageDialog(this, "Registration successful! The course has been added to your schedule.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                refreshCatalog();
+                catalogModel.refresh(); // Repaints only the cells that changed, e.g. the seat count
                 refreshMyData(); // Update the other tabs silently
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, ex.getMessage(), "Registration Failed", JOptionPane.ERROR_MESSAGE);
-            }
+            }, ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Registration Failed", JOptionPane.ERROR_MESSAGE));
         });
 
+        catalogCount = new JLabel(" ");
+        catalogCount.setForeground(new Color(100, 100, 100));
+        catalogModel.addTableModelListener(e -> catalogCount.setText(
+                String.format("%,d sections", catalogModel.getRowCount())));
+
         JPanel btnPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         btnPanel.setOpaque(false);
         btnPanel.setBorder(new EmptyBorder(10, 0, 0, 0));
+        btnPanel.add(catalogCount);
+        btnPanel.add(Box.createHorizontalStrut(10));
         btnPanel.add(regBtn);
         panel.add(btnPanel, BorderLayout.SOUTH);
 
         return panel;
     }
 
+    private JPanel createCatalogFilterBar() {
+        JPanel bar = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        bar.setOpaque(false);
+        bar.setBorder(new EmptyBorder(0, 0, 10, 0));
+
+        codeFilter = new JTextField(8);
+        codeFilter.putClientProperty(FlatClientProperties.PLACEHOLDER_TEXT, "Code prefix");
+        instructorFilter = new JTextField(10);
+        instructorFilter.putClientProperty(FlatClientProperties.PLACEHOLDER_TEXT, "Instructor");
+
+        creditsFilter = new JComboBox<>();
+        creditsFilter.addItem("Any credits");
+        for (int c = 1; c <= 10; c++) {
+            creditsFilter.addItem(String.valueOf(c));
+        }
+
+        openSeatsOnly = new JCheckBox("Open seats only");
+        openSeatsOnly.setOpaque(false);
+
+        JButton searchBtn = new JButton("Search");
+        searchBtn.putClientProperty(FlatClientProperties.STYLE, "arc: 10");
+        searchBtn.addActionListener(e -> refreshCatalog());
+        codeFilter.addActionListener(e -> refreshCatalog());
+        instructorFilter.addActionListener(e -> refreshCatalog());
+
+        bar.add(codeFilter);
+        bar.add(instructorFilter);
+        bar.add(creditsFilter);
+        bar.add(openSeatsOnly);
+        bar.add(searchBtn);
+        return bar;
+    }
+
     // --- PANEL 2: MY REGISTRATIONS ---
     private JPanel createMySectionsPanel() {
         JPanel panel = new JPanel(new BorderLayout());
@@ -188,20 +296,13 @@ public class StudentPanel extends JPanel {
         header.setBorder(new EmptyBorder(0, 0, 15, 0));
         panel.add(header, BorderLayout.NORTH);
 
-        String[] cols = {"ID", "Course", "Time/Room", "Instructor", "Drop Deadline"};
-        myModel = new DefaultTableModel(cols, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) { return false; }
-            
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                // ID (0) is numeric
-                if (columnIndex == 0) {
-                    return Integer.class;
-                }
-                return String.class;
-            }
-        };
+        myModel = new RecordTableModel<>(List.of(
+                new RecordTableModel.Column<>("ID", Integer.class, Enrollment::sectionId),
+                new RecordTableModel.Column<>("Course", String.class, Enrollment::display),
+                new RecordTableModel.Column<>("Time/Room", String.class, Enrollment::info),
+                new RecordTableModel.Column<>("Instructor", String.class, Enrollment::instructor),
+                new RecordTableModel.Column<>("Drop Deadline", String.class, Enrollment::deadlineText)),
+                Enrollment::sectionId);
         JTable table = new JTable(myModel);
         table.setAutoCreateRowSorter(true);
         table.setRowHeight(30);
@@ -218,7 +319,7 @@ public class StudentPanel extends JPanel {
 
         JButton gradesBtn = new JButton("Check Grades");
         gradesBtn.putClientProperty(FlatClientProperties.STYLE, "arc: 10");
-        gradesBtn.addActionListener(e -> showGradePopup(table));
+        gradesBtn.addActionListener(e -> showGradePopup(table, gradesBtn));
 
         JButton dropBtn = new JButton("Drop Section");
         dropBtn.setBackground(new Color(255, 100, 100));
@@ -228,18 +329,19 @@ public class StudentPanel extends JPanel {
             int row = table.getSelectedRow();
             if (row == -1) return;
             int modelRow = table.convertRowIndexToModel(row);
-            String secId = String.valueOf(myModel.getValueAt(modelRow, 0));
+            int secId = myModel.getRow(modelRow).sectionId();
             
             int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to drop this course?", "Confirm Drop", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
-                try {
-                    studentService.drop(getCurrentUser(), Integer.parseInt(secId));
+                User user = getCurrentUser();
+                tasks.perform(dropBtn, () -> {
+                    studentService.drop(user, secId);
+                    return null;
+                }, done -> {
                     refreshMyData();
-                    refreshCatalog();
+                    catalogModel.refresh();
                     JOptionPane.showMessageDialog(this, "Course dropped successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                } catch(Exception ex) { 
-                    JOptionPane.showMessageDialog(this, ex.getMessage(), "Unable to Drop", JOptionPane.ERROR_MESSAGE);
-                }
+                }, ex -> JOptionPane.showMessageDialog(this, ex.getMessage(), "Unable to Drop", JOptionPane.ERROR_MESSAGE));
             }
         });
 
@@ -263,20 +365,11 @@ public class StudentPanel extends JPanel {
         header.setBorder(new EmptyBorder(0, 0, 15, 0));
         panel.add(header, BorderLayout.NORTH);
 
-        String[] cols = {"Course Code", "Course Title", "Final Grade"};
-        transcriptModel = new DefaultTableModel(cols, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) { return false; }
-            
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                // Final Grade (2) is numeric
-                if (columnIndex == 2) {
-                    return Double.class;
-                }
-                return String.class;
-            }
-        };
+        transcriptModel = new RecordTableModel<>(List.of(
+                new RecordTableModel.Column<>("Course Code", String.class, TranscriptRow::courseCode),
+                new RecordTableModel.Column<>("Course Title", String.class, TranscriptRow::title),
+                new RecordTableModel.Column<>("Final Grade", Double.class, TranscriptRow::finalGrade)),
+                TranscriptRow::enrollmentId);
         JTable table = new JTable(transcriptModel);
         table.setRowHeight(30);
         table.setEnabled(false); // Read only view
@@ -287,7 +380,7 @@ public class StudentPanel extends JPanel {
         panel.add(new JScrollPane(table), BorderLayout.CENTER);
 
         JButton exportBtn = createPrimaryButton("Download Transcript (CSV)");
-        exportBtn.addActionListener(e -> exportTranscript());
+        exportBtn.addActionListener(e -> exportTranscript(exportBtn));
         
         JPanel btnPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         btnPanel.setOpaque(false);
@@ -300,22 +393,33 @@ public class StudentPanel extends JPanel {
 
     // --- HELPERS ---
 
-    private void showGradePopup(JTable table) {
+    // Component scores and weighted final grade for the grade popup
+    private record GradeReport(double quiz, double midterm, double endsem, double finalGrade) {}
+
+    private void showGradePopup(JTable table, JButton trigger) {
         int row = table.getSelectedRow();
             if (row == -1) {
                 JOptionPane.showMessageDialog(this, "Select a section to view grades.");
                 return;
             }
         int modelRow = table.convertRowIndexToModel(row);
-        String secId = String.valueOf(myModel.getValueAt(modelRow, 0));
-        String courseTitle = String.valueOf(myModel.getValueAt(modelRow, 1));
-        
-            try {
-                Map<String, Double> grades = studentService.getGrades(getCurrentUser(), Integer.parseInt(secId));
-                double quiz = grades.getOrDefault("Quiz", 0.0);
-                double mid = grades.getOrDefault("Midterm", 0.0);
-                double end = grades.getOrDefault("EndSem", 0.0);
-                double finalGrade = (quiz * 0.2) + (mid * 0.3) + (end * 0.5);
+        Enrollment enrollment = myModel.getRow(modelRow);
+        String courseTitle = enrollment.display();
+        User user = getCurrentUser();
+
+        // Scores and weights are both read on the worker thread
+        tasks.perform(trigger, () -> {
+            Map<String, Double> grades = studentService.getGrades(user, enrollment.sectionId());
+            double quiz = grades.getOrDefault("Quiz", 0.0);
+            double mid = grades.getOrDefault("Midterm", 0.0);
+            double end = grades.getOrDefault("EndSem", 0.0);
+            return new GradeReport(quiz, mid, end,
+                    TranscriptService.weightedFinal(studentService.getGradeWeights(), quiz, mid, end));
+        }, report -> {
+                double quiz = report.quiz();
+                double mid = report.midterm();
+                double end = report.endsem();
+                double finalGrade = report.finalGrade();
             
             // Nice HTML formatted message
             String message = String.format("<html><h3>%s</h3>" +
@@ -328,100 +432,115 @@ public class StudentPanel extends JPanel {
                         courseTitle, quiz, mid, end, finalGrade);
             
             JOptionPane.showMessageDialog(this, message, "Grade Report", JOptionPane.INFORMATION_MESSAGE);
-            } catch (Exception ex) {
-                ex.printStackTrace();
-            }
+        }, Throwable::printStackTrace);
     }
 
-    private void exportTranscript() {
+    private void exportTranscript(JButton trigger) {
             JFileChooser fileChooser = new JFileChooser();
             fileChooser.setDialogTitle("Save Transcript");
             fileChooser.setSelectedFile(new File("transcript.csv"));
             
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try (PrintWriter writer = new PrintWriter(fileChooser.getSelectedFile())) {
-                    List<Map<String, String>> data = studentService.getTranscriptData(getCurrentUser());
+            File target = fileChooser.getSelectedFile();
+            User user = getCurrentUser();
+            // Query and file write both run on the worker thread
+            tasks.perform(trigger, () -> {
+                List<TranscriptRow> data = studentService.getTranscriptData(user);
+                try (PrintWriter writer = new PrintWriter(target)) {
                     writer.println("Course Code,Course Title,Final Grade");
-                    for (Map<String, String> rowData : data) {
-                        writer.println(String.format("%s,%s,%s", 
-                            rowData.get("code"), rowData.get("title"), rowData.get("grade")));
+                    for (TranscriptRow rowData : data) {
+                        writer.println(String.format("%s,%s,%.2f", 
+                            rowData.courseCode(), rowData.title(), rowData.finalGrade()));
                     }
-                JOptionPane.showMessageDialog(this, "Your transcript has been saved successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "Unable to save transcript file. Please check permissions and try again.", "Export Failed", JOptionPane.ERROR_MESSAGE);
-            }
+                }
+                return null;
+            }, done -> JOptionPane.showMessageDialog(this, "Your transcript has been saved successfully!", "Success", JOptionPane.INFORMATION_MESSAGE),
+                    ex -> JOptionPane.showMessageDialog(this, "Unable to save transcript file. Please check permissions and try again.", "Export Failed", JOptionPane.ERROR_MESSAGE));
         }
     }
 
+    // Point the catalog table at the current filters; rows load as they are scrolled into view
     private void refreshCatalog() {
         if (catalogModel == null) return;
-        catalogModel.setRowCount(0);
-        try {
-            List<Map<String, String>> rows = studentService.getCourseCatalog();
-            for (Map<String, String> r : rows) {
-                try {
-                catalogModel.addRow(new Object[]{
-                            Integer.parseInt(r.get("id")), // ID as Integer
-                            r.get("code"), 
-                            r.get("title"), 
-                            Integer.parseInt(r.get("credits")), // Credits as Integer
-                            r.get("instructor"), 
-                            r.get("time"), 
-                            r.get("seats") // Seats as String (formatted as "X / Y")
-                });
-                } catch (NumberFormatException nfe) {
-                    // If parsing fails, skip this row
-                    System.err.println("Error parsing row: " + nfe.getMessage());
+
+        Integer credits = creditsFilter.getSelectedIndex() > 0
+                ? Integer.valueOf((String) creditsFilter.getSelectedItem())
+                : null;
+        CatalogQuery query = CatalogQuery.firstPage(codeFilter.getText(), instructorFilter.getText(),
+                credits, openSeatsOnly.isSelected());
+        catalogModel.setSource(new PagedTableModel.Source<>() {
+            @Override
+            public int count() throws Exception {
+                return studentService.countCatalog(query);
+            }
+
+            @Override
+            public List<CatalogEntry> fetch(int offset, int limit, int sortColumn, boolean ascending) throws Exception {
+                CatalogSort sort = sortColumn < 0 ? CatalogSort.SECTION_ID : CATALOG_SORTS[sortColumn];
+                return studentService.getCatalogRange(query, sort, ascending, offset, limit);
+            }
+
+            // Only the default section order can seek by cursor; the other orders sort
+            // the cached catalog in the service, so a seek would save nothing over OFFSET.
+            @Override
+            public List<CatalogEntry> fetchAfter(CatalogEntry last, int limit, int sortColumn, boolean ascending) throws Exception {
+                boolean bySection = sortColumn < 0 || CATALOG_SORTS[sortColumn] == CatalogSort.SECTION_ID;
+                if (!bySection || !ascending || limit != StudentService.CATALOG_PAGE_SIZE) {
+                    return null;
                 }
+                return studentService.getCatalogPage(query.after(last.sectionId())).rows();
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+        });
+    }
+
+    private void pollSeats() {
+        if (tasks.isLoading("seats")) return; // Previous poll still running
+        long cursor = seatCursor;
+        tasks.loadQuietly("seats", () -> studentService.getSeatChanges(cursor), changes -> {
+            seatPoll.setDelay(SEAT_POLL_MS);
+            applySeatChanges(changes);
+        }, this::seatPollFailed);
+    }
+
+    // Back off until a poll succeeds again; only the first failure of a streak is logged
+    private void seatPollFailed(Exception e) {
+        int delay = seatPoll.getDelay();
+        if (delay == SEAT_POLL_MS) {
+            System.err.println("Seat poll failed: " + e.getMessage());
         }
+        seatPoll.setDelay(Math.min(delay * 2, SEAT_POLL_MAX_MS));
+    }
+
+    // Patch the new seat numbers into the loaded rows; only changed Seats cells repaint
+    private void applySeatChanges(SeatChanges changes) {
+        seatCursor = changes.cursor();
+        if (changes.seats().isEmpty()) return;
+        Map<Integer, SeatCount> bySection = new HashMap<>();
+        for (SeatCount seats : changes.seats()) {
+            bySection.put(seats.sectionId(), seats);
+        }
+        catalogModel.updateLoadedRows(entry -> {
+            SeatCount seats = bySection.get(entry.sectionId());
+            return seats == null ? entry : entry.withSeats(seats.capacity(), seats.enrolled());
+        });
     }
 
     private void refreshMyData() {
         if (myModel == null) return;
-        myModel.setRowCount(0);
-        try {
-            List<Map<String, String>> rows = studentService.getMySections(getCurrentUser());
-            for (Map<String, String> r : rows) {
-                try {
-                    myModel.addRow(new Object[]{
-                            Integer.parseInt(r.get("id")), // ID as Integer
-                            r.get("display"), 
-                            r.get("info"), 
-                            r.get("instructor"),
-                            r.get("deadline") // Drop deadline
-                    });
-                } catch (NumberFormatException nfe) {
-                    // If parsing fails, skip this row
-                    System.err.println("Error parsing row: " + nfe.getMessage());
-                }
-            }
-        } catch (Exception e) { 
-            e.printStackTrace(); 
-        }
+        User user = getCurrentUser();
+        tasks.load("mySections", () -> studentService.getMySections(user), myModel::setRows, e -> {
+            myModel.clear();
+            e.printStackTrace();
+        });
     }
 
     private void refreshTranscript() {
         if (transcriptModel == null) return;
-        transcriptModel.setRowCount(0);
-        try {
-            List<Map<String, String>> data = studentService.getTranscriptData(getCurrentUser());
-            for (Map<String, String> row : data) {
-                // Parse grade as Double for proper numeric sorting
-                Double grade = null;
-                try {
-                    grade = Double.parseDouble(row.get("grade"));
-                } catch (NumberFormatException e) {
-                    // If parsing fails, keep as 0.0 or handle as needed
-                    grade = 0.0;
-                }
-                transcriptModel.addRow(new Object[]{
-                    row.get("code"), row.get("title"), grade
-                });
-            }
-        } catch (Exception e) { e.printStackTrace(); }
+        User user = getCurrentUser();
+        tasks.load("transcript", () -> studentService.getTranscriptData(user), transcriptModel::setRows, e -> {
+            transcriptModel.clear();
+            e.printStackTrace();
+        });
     }
 
     private JButton createPrimaryButton(String text) {
@@ -0,0 +1,185 @@
+package edu.univ.erp.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * TaskRunner - Runs service calls off the Event Dispatch Thread for one panel
+ *
+ * Design Decisions:
+ * - Work runs on a shared worker executor: one virtual thread per task when the
+ *   JVM has them (Java 21+, looked up reflectively since the build targets 17),
+ *   otherwise a small pool of daemon threads. The JDBC pools bound the real
+ *   concurrency either way.
+ * - Results and errors are delivered on the EDT, so callbacks may touch Swing
+ *   components and table models directly.
+ * - Loads are keyed: a new load with the same key (e.g. "catalog") replaces the
+ *   previous one, and cancelLoads() drops all of them when the user switches
+ *   cards. A cancelled load that already reached the database is left to finish;
+ *   only its result is discarded.
+ * - Actions (register, save, login) are never cancelled, and their trigger
+ *   button is disabled until they finish so they cannot be submitted twice.
+ * - While anything runs, the busy indicator is shown and the panel gets a wait
+ *   cursor. Quiet loads (polls, image decoding) skip both, so the panel does
+ *   not flicker for work the user did not ask for.
+ *
+ * All methods must be called on the EDT.
+ */
+public class TaskRunner {
+
+    private static final int PLATFORM_WORKERS = 4;
+    private static final ExecutorService WORKERS = newWorkerExecutor();
+
+    private final JComponent owner;
+    private final JProgressBar busyIndicator = new JProgressBar();
+    private final Map<String, SwingWorker<?, ?>> loads = new HashMap<>();
+    private int running;
+
+    public TaskRunner(JComponent owner) {
+        this.owner = owner;
+        busyIndicator.setIndeterminate(true);
+        busyIndicator.setVisible(false);
+        busyIndicator.setMaximumSize(new Dimension(200, 6));
+        busyIndicator.setAlignmentX(Component.LEFT_ALIGNMENT);
+    }
+
+    /** Indeterminate progress bar that is visible while any task of this runner runs */
+    public JProgressBar getBusyIndicator() {
+        return busyIndicator;
+    }
+
+    /**
+     * Load data in the background, replacing any earlier load with the same key.
+     *
+     * @param key       identifies what is loaded, e.g. "catalog"
+     * @param work      service call, run on a worker thread
+     * @param onSuccess receives the result on the EDT
+     * @param onFailure receives the error on the EDT
+     */
+    public <T> void load(String key, Callable<T> work, Consumer<T> onSuccess, Consumer<Exception> onFailure) {
+        cancel(key);
+        loads.put(key, start(key, null, false, work, onSuccess, onFailure));
+    }
+
+    /**
+     * Like load, but without the busy indicator and wait cursor; for background
+     * work the user did not ask for, such as polls and decoding images.
+     */
+    public <T> void loadQuietly(String key, Callable<T> work, Consumer<T> onSuccess, Consumer<Exception> onFailure) {
+        cancel(key);
+        loads.put(key, start(key, null, true, work, onSuccess, onFailure));
+    }
+
+    /**
+     * Perform an action in the background. It is not cancelled by card switches.
+     *
+     * @param trigger button (or other component) disabled until the action finishes; may be null
+     */
+    public <T> void perform(Component trigger, Callable<T> work, Consumer<T> onSuccess, Consumer<Exception> onFailure) {
+        if (trigger != null) {
+            trigger.setEnabled(false);
+        }
+        start(null, trigger, false, work, onSuccess, onFailure);
+    }
+
+    /** Drop the pending load with this key, if any */
+    public void cancel(String key) {
+        SwingWorker<?, ?> worker = loads.remove(key);
+        if (worker != null) {
+            worker.cancel(false);
+        }
+    }
+
+    /** Drop every pending load (e.g. when the user switches to another card) */
+    public void cancelLoads() {
+        for (SwingWorker<?, ?> worker : loads.values()) {
+            worker.cancel(false);
+        }
+        loads.clear();
+    }
+
+    public boolean isLoading(String key) {
+        return loads.containsKey(key);
+    }
+
+    private <T> SwingWorker<T, Void> start(String key, Component trigger, boolean quiet, Callable<T> work,
+                                           Consumer<T> onSuccess, Consumer<Exception> onFailure) {
+        SwingWorker<T, Void> worker = new SwingWorker<>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return work.call();
+            }
+
+            @Override
+            protected void done() {
+                if (!quiet) {
+                    taskFinished();
+                }
+                if (trigger != null) {
+                    trigger.setEnabled(true);
+                }
+                if (key != null) {
+                    // Stale: cancelled or replaced by a newer load with the same key
+                    if (isCancelled() || loads.get(key) != this) {
+                        return;
+                    }
+                    loads.remove(key);
+                }
+                T result;
+                try {
+                    result = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    onFailure.accept(cause instanceof Exception ex ? ex : new Exception(cause));
+                    return;
+                }
+                onSuccess.accept(result);
+            }
+        };
+        if (!quiet) {
+            taskStarted();
+        }
+        WORKERS.execute(worker);
+        return worker;
+    }
+
+    private void taskStarted() {
+        if (running++ == 0) {
+            busyIndicator.setVisible(true);
+            owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            owner.revalidate();
+        }
+    }
+
+    private void taskFinished() {
+        if (--running == 0) {
+            busyIndicator.setVisible(false);
+            owner.setCursor(null);
+            owner.revalidate();
+        }
+    }
+
+    private static ExecutorService newWorkerExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(PLATFORM_WORKERS, r -> {
+                Thread t = new Thread(r, "ui-worker-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.domain.Enrollment;
+import edu.univ.erp.domain.User;
+import edu.univ.erp.domain.UserRole;
+import edu.univ.erp.service.StudentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ReplicaRoutingProviderTest - Read routing between a primary and a replica
+ *
+ * Two embedded databases stand in for the MySQL primary and its replica. They
+ * start from the same script and are then told apart by the CS101 course
+ * title, so each read shows which database served it. The replica never
+ * receives the primary's writes, like a replica that is lagging behind.
+ */
+class ReplicaRoutingProviderTest {
+
+    private static final long STICKY_MS = 200;
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private ReplicaRoutingProvider routing;
+
+    @BeforeEach
+    void startDatabases() throws Exception {
+        primary = EmbeddedDatabase.start(Path.of("setup.sql"), 2);
+        replica = EmbeddedDatabase.start(Path.of("setup.sql"), 2);
+        setTitle(primary, "primary");
+        setTitle(replica, "replica");
+        routing = new ReplicaRoutingProvider(primary, replica, STICKY_MS);
+    }
+
+    @AfterEach
+    void closeDatabases() {
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readsGoToReplica() throws Exception {
+        assertFalse(routing.readsFromPrimary());
+        assertEquals("replica", readTitle(routing.getErpReadConnection()));
+        assertEquals("primary", readTitle(routing.getErpConnection()));
+    }
+
+    @Test
+    void readRightAfterWriteGoesToPrimary() throws Exception {
+        routing.noteWrite();
+        assertTrue(routing.readsFromPrimary());
+        assertEquals("primary", readTitle(routing.getErpReadConnection()));
+
+        Thread.sleep(STICKY_MS + 50);
+        assertFalse(routing.readsFromPrimary());
+        assertEquals("replica", readTitle(routing.getErpReadConnection()));
+    }
+
+    @Test
+    void studentSeesOwnRegistration() throws Exception {
+        StudentService service = new StudentService(routing);
+        User student = new User(4, "stu2", UserRole.STUDENT);
+
+        service.register(student, 2);
+        List<Enrollment> schedule = service.getMySections(student);
+        assertEquals(1, schedule.size(), "Schedule read right after registering must come from the primary");
+        assertEquals(2, schedule.get(0).sectionId());
+
+        Thread.sleep(STICKY_MS + 50);
+        assertTrue(service.getMySections(student).isEmpty(), "Later reads should be served by the replica");
+    }
+
+    private static void setTitle(EmbeddedDatabase db, String title) throws SQLException {
+        try (Connection conn = db.getErpConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE courses SET title = ? WHERE course_code = 'CS101'")) {
+            stmt.setString(1, title);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static String readTitle(Connection connection) throws SQLException {
+        try (Connection conn = connection;
+             PreparedStatement stmt = conn.prepareStatement("SELECT title FROM courses WHERE course_code = 'CS101'");
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.EmbeddedDatabase;
+import edu.univ.erp.domain.CatalogEntry;
+import edu.univ.erp.domain.User;
+import edu.univ.erp.domain.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * CatalogCacheTest - Catalog reads served from the cached static rows
+ *
+ * Runs on testpack.sql. Checks that the in-memory filters and sorts return the
+ * same sections as the equivalent SQL, that seat counts are read fresh while the
+ * static rows stay cached, and that creating a section invalidates the cache.
+ */
+class CatalogCacheTest {
+
+    private static final int STUDENT_ID = 9000;
+
+    private EmbeddedDatabase db;
+    private StudentService students;
+    private CatalogCache cache;
+
+    @BeforeEach
+    void startDatabase() throws Exception {
+        db = EmbeddedDatabase.start(Path.of("testpack.sql"), 2);
+        students = new StudentService(db);
+        cache = CatalogCache.of(db);
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        db.close();
+    }
+
+    @Test
+    void filtersAndSortsMatchDatabase() throws Exception {
+        CatalogQuery all = CatalogQuery.firstPage(null, null, null, false);
+        assertEquals(idsFromDatabase("", "s.section_id"), ids(students.getCatalogRange(all, CatalogSort.SECTION_ID, true, 0, 1000)));
+        assertEquals(idsFromDatabase("", "c.title DESC, s.section_id DESC"),
+                ids(students.getCatalogRange(all, CatalogSort.TITLE, false, 0, 1000)));
+        assertEquals(idsFromDatabase("", "s.capacity - s.enrolled_count, s.section_id"),
+                ids(students.getCatalogRange(all, CatalogSort.SEATS_AVAILABLE, true, 0, 1000)));
+
+        CatalogQuery cs = CatalogQuery.firstPage("cs", null, 4, true);
+        String where = " AND s.course_code LIKE 'CS%' AND c.credits = 4 AND s.enrolled_count < s.capacity";
+        assertEquals(idsFromDatabase(where, "s.section_id"), ids(students.getCatalogPage(cs).rows()));
+        assertEquals(idsFromDatabase(where, "s.section_id").size(), students.countCatalog(cs));
+    }
+
+    @Test
+    void staticRowsCachedSeatsFresh() throws Exception {
+        CatalogQuery all = CatalogQuery.firstPage(null, null, null, false);
+        CatalogEntry before = students.getCatalogPage(all).rows().get(0);
+        students.getCatalogPage(all);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+
+        try (Connection conn = db.getErpConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO students (user_id, full_name, roll_no, year) VALUES (?, 'Cache Test', 'C9000', 2024)")) {
+            stmt.setInt(1, STUDENT_ID);
+            stmt.executeUpdate();
+        }
+        students.register(new User(STUDENT_ID, "cache", UserRole.STUDENT), before.sectionId());
+
+        CatalogEntry after = students.getCatalogPage(all).rows().get(0);
+        assertEquals(before.enrolled() + 1, after.enrolled(), "Seat counts must not come from the cache");
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void createSectionInvalidates() throws Exception {
+        CatalogQuery all = CatalogQuery.firstPage(null, null, null, false);
+        int count = students.countCatalog(all);
+
+        new AdminService(db).createSection("CS101", 2, "Sat 09:00", "Room Z1", 10, LocalDate.of(2030, 1, 1));
+
+        assertEquals(count + 1, students.countCatalog(all));
+        assertEquals(2, cache.getMissCount());
+        List<CatalogEntry> rows = students.getCatalogRange(all, CatalogSort.SECTION_ID, false, 0, 1);
+        assertEquals("Room Z1", rows.get(0).room());
+        assertEquals(10, rows.get(0).seatsAvailable());
+    }
+
+    private List<Integer> idsFromDatabase(String where, String orderBy) throws Exception {
+        String sql = "SELECT s.section_id FROM sections s JOIN courses c ON s.course_code = c.course_code "
+                + "JOIN instructors i ON s.instructor_id = i.user_id WHERE 1 = 1" + where + " ORDER BY " + orderBy;
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = db.getErpConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    private static List<Integer> ids(List<CatalogEntry> rows) {
+        List<Integer> ids = new ArrayList<>();
+        for (CatalogEntry row : rows) {
+            ids.add(row.sectionId());
+        }
+        return ids;
+    }
+}
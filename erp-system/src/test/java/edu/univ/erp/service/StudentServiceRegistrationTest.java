@@ -0,0 +1,170 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.EmbeddedDatabase;
+import edu.univ.erp.domain.User;
+import edu.univ.erp.domain.UserRole;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * StudentServiceRegistrationTest - Seat reservation under concurrent registration
+ *
+ * Thousands of students register for one section at the same time on an
+ * embedded MySQL-mode database. The section must end up exactly full: no
+ * overbooking, and the enrolled_count counter must match the enrollments table.
+ * Refusals must name the actual reason: only a unique-key violation means the
+ * student is already registered.
+ */
+class StudentServiceRegistrationTest {
+
+    private static final int STUDENTS = 2000;
+    private static final int CAPACITY = 50;
+    private static final int THREADS = 16;
+    private static final int FIRST_STUDENT_ID = 10_000;
+
+    private static EmbeddedDatabase db;
+    private static int sectionId;
+
+    @BeforeAll
+    static void createSection() throws Exception {
+        db = EmbeddedDatabase.start(Path.of("setup.sql"), THREADS);
+        try (Connection conn = db.getErpConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO sections (course_code, instructor_id, days_times, room, capacity) "
+                            + "VALUES ('CS101', 2, 'Fri 09:00', 'L1', ?)", Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setInt(1, CAPACITY);
+                stmt.executeUpdate();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    keys.next();
+                    sectionId = keys.getInt(1);
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO students (user_id, full_name, roll_no, year) VALUES (?, ?, ?, 2024)")) {
+                for (int i = 0; i < STUDENTS; i++) {
+                    stmt.setInt(1, FIRST_STUDENT_ID + i);
+                    stmt.setString(2, "Student " + i);
+                    stmt.setString(3, "R" + i);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        db.close();
+    }
+
+    @Test
+    void duplicateRegistrationIsReported() throws Exception {
+        StudentService service = new StudentService(db);
+        User student = new User(4, "stu2", UserRole.STUDENT);
+        service.register(student, 2);
+
+        Exception e = assertThrows(Exception.class, () -> service.register(student, 2));
+        assertEquals("You are already registered for this section.", e.getMessage());
+    }
+
+    @Test
+    void otherConstraintFailuresAreNotDuplicates() {
+        StudentService service = new StudentService(db);
+        // No students row, so the enrollment's foreign key fails, not the unique key
+        User unknown = new User(99_999, "ghost", UserRole.STUDENT);
+
+        Exception e = assertThrows(Exception.class, () -> service.register(unknown, 2));
+        assertEquals("Unable to complete registration. Please try again.", e.getMessage());
+    }
+
+    @Test
+    void concurrentRegistrationsNeverOverbook() throws Exception {
+        StudentService service = new StudentService(db);
+        AtomicInteger registered = new AtomicInteger();
+        List<String> unexpected = new ArrayList<>();
+        ConcurrentHashMap<String, AtomicInteger> refusals = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            User student = new User(FIRST_STUDENT_ID + i, "stu" + i, UserRole.STUDENT);
+            calls.add(pool.submit(() -> {
+                start.await();
+                try {
+                    service.register(student, sectionId);
+                    registered.incrementAndGet();
+                } catch (Exception e) {
+                    refusals.computeIfAbsent(e.getMessage(), k -> new AtomicInteger()).incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> call : calls) {
+            call.get();
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        System.out.printf("%,d concurrent registrations on %d threads in %.2f s (%,.0f/s); %d registered, refused: %s%n",
+                STUDENTS, THREADS, seconds, STUDENTS / seconds, registered.get(), refusals);
+
+        for (String message : refusals.keySet()) {
+            if (!message.equals("Section is full.")) {
+                unexpected.add(message);
+            }
+        }
+        assertTrue(unexpected.isEmpty(), "Registrations failed for reasons other than a full section: " + unexpected);
+        assertEquals(CAPACITY, registered.get());
+
+        int enrolledCount;
+        int capacity;
+        int enrollments;
+        try (Connection conn = db.getErpConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT enrolled_count, capacity FROM sections WHERE section_id = ?")) {
+                stmt.setInt(1, sectionId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    enrolledCount = rs.getInt("enrolled_count");
+                    capacity = rs.getInt("capacity");
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT COUNT(*) FROM enrollments WHERE section_id = ?")) {
+                stmt.setInt(1, sectionId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    enrollments = rs.getInt(1);
+                }
+            }
+        }
+        assertEquals(CAPACITY, enrolledCount);
+        assertTrue(enrolledCount <= capacity, "Section is overbooked");
+        assertEquals(enrolledCount, enrollments, "enrolled_count drifted from the enrollments table");
+    }
+}
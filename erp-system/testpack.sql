@@ -63,7 +63,10 @@ CREATE TABLE sections (
     days_times VARCHAR(50),
     room VARCHAR(20),
     capacity INT,
+    enrolled_count INT NOT NULL DEFAULT 0, -- Maintained by register/drop; see AdminService.reconcileEnrollmentCounts
+    seats_changed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), -- Set with every seat change; polled by StudentService.getSeatChanges
     drop_deadline DATE,
+    INDEX idx_sections_seats_changed (seats_changed_at),
     FOREIGN KEY (course_code) REFERENCES courses(course_code),
     FOREIGN KEY (instructor_id) REFERENCES instructors(user_id)
 );
@@ -83,7 +86,8 @@ CREATE TABLE grades (
     enrollment_id INT,
     component_name VARCHAR(50),
     score DOUBLE,
-    FOREIGN KEY (enrollment_id) REFERENCES enrollments(enrollment_id)
+    FOREIGN KEY (enrollment_id) REFERENCES enrollments(enrollment_id),
+    UNIQUE KEY uq_grades_enrollment_component (enrollment_id, component_name)
 );
 
 CREATE TABLE settings (
@@ -91,7 +95,11 @@ CREATE TABLE settings (
     setting_value VARCHAR(255)
 );
 
-INSERT INTO settings (setting_key, setting_value) VALUES ('maintenance_on', 'false');
+INSERT INTO settings (setting_key, setting_value) VALUES ('maintenance_on', 'false'),
+('settings_version', '0'),
+('weight_quiz', '0.2'),
+('weight_midterm', '0.3'),
+('weight_endsem', '0.5');
 
 -- ==========================================
 -- 4. INSERT TEST DATA
@@ -245,6 +253,10 @@ INSERT INTO enrollments (student_id, section_id) VALUES
 (15, 3), -- CS201 Section 1
 (15, 7); -- MATH101 Section 2
 
+-- Sync the denormalized seat counter with the seeded enrollments
+UPDATE sections s SET enrolled_count = (SELECT COUNT(*) FROM enrollments e WHERE e.section_id = s.section_id)
+WHERE s.section_id > 0; -- key predicate keeps Workbench safe-update mode happy
+
 -- G. Insert Sample Grades
 -- Alice's grades (enrollment_id 1-4) - Excellent student
 INSERT INTO grades (enrollment_id, component_name, score) VALUES 